@@ -2,19 +2,31 @@ package org.jenkinsci.plugins.nuget;
 
 import hudson.CopyOnWrite;
 import hudson.Extension;
+import hudson.Util;
 import hudson.XmlFile;
 import hudson.util.FormValidation;
+import hudson.util.Secret;
 import jenkins.model.GlobalConfiguration;
 import jenkins.model.Jenkins;
 import net.sf.json.JSONObject;
+import org.jenkinsci.plugins.nuget.publishers.NugetPushMethod;
+import org.jenkinsci.plugins.nuget.utils.SharedPackageVersionCache;
 import org.jenkinsci.plugins.nuget.utils.Validations;
 import org.jenkinsci.plugins.nuget.triggers.NugetTrigger;
 import org.kohsuke.stapler.QueryParameter;
 import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
 
+import java.io.IOException;
+import java.io.ObjectStreamField;
+import java.io.PrintWriter;
 import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Arnaud TAMAILLON
@@ -22,28 +34,207 @@ import java.util.List;
 @Extension
 public class NugetGlobalConfiguration extends GlobalConfiguration implements Serializable {
 
+    static final int DEFAULT_VERSION_CACHE_TTL = 5;
+    static final int DEFAULT_VERSION_CACHE_SIZE = 1000;
+    static final int DEFAULT_LOOKUP_THREADS = 8;
+    static final int DEFAULT_LOOKUPS_PER_FEED = 4;
+    static final int DEFAULT_LOOKUP_TIMEOUT = 120;
+    static final int DEFAULT_FEED_WATCH_INTERVAL = 5;
+    static final int DEFAULT_HELPER_REQUESTS = 100;
+    static final int DEFAULT_POLL_THREADS = 0;
+    static final String DEFAULT_PACKAGE_SOURCE = "https://api.nuget.org/v3/index.json";
+    private static final String WEBHOOK_TOKEN = "webhookToken";
+    /**
+     * The fields sent to agents with the configuration: all of them but the webhook token, which only the controller uses.
+     * Static, so that the XStream persistence of the configuration, which still saves the token, ignores it.
+     */
+    private static final ObjectStreamField[] serialPersistentFields = getSerialPersistentFields();
+
     private String nugetExe;
     @CopyOnWrite
     private volatile List<NugetPublication> publications = Collections.EMPTY_LIST;
+    private String packageSources;
+    private int versionCacheTtl = DEFAULT_VERSION_CACHE_TTL;
+    private int versionCacheSize = DEFAULT_VERSION_CACHE_SIZE;
+    private int lookupThreads = DEFAULT_LOOKUP_THREADS;
+    private int lookupsPerFeed = DEFAULT_LOOKUPS_PER_FEED;
+    private int lookupTimeout = DEFAULT_LOOKUP_TIMEOUT;
+    private String nugetHelper;
+    private int helperRequests = DEFAULT_HELPER_REQUESTS;
+    private int pollThreads = DEFAULT_POLL_THREADS;
+    private int feedWatchInterval = DEFAULT_FEED_WATCH_INTERVAL;
+    private boolean readCatalogs;
+    private Secret webhookToken;
+    private transient SharedPackageVersionCache versionCache;
 
     public NugetGlobalConfiguration() {
         super();
         load();
     }
 
+    private static ObjectStreamField[] getSerialPersistentFields() {
+        List<ObjectStreamField> fields = new ArrayList<>();
+        for (Field field : NugetGlobalConfiguration.class.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !WEBHOOK_TOKEN.equals(field.getName())) {
+                fields.add(new ObjectStreamField(field.getName(), field.getType()));
+            }
+        }
+        return fields.toArray(new ObjectStreamField[0]);
+    }
+
     public String getNugetExe() {
         migrate();
         return nugetExe;
     }
 
+    public NugetPushMethod[] getPushMethods() {
+        return NugetPushMethod.values();
+    }
+
     public List<NugetPublication> getPublications() {
         return publications;
     }
 
+    /**
+     * @return the package sources used by version lookups, one URL per line.
+     */
+    public String getPackageSources() {
+        return packageSources;
+    }
+
+    /**
+     * @return the configured package sources, or nuget.org if none is configured.
+     */
+    public List<String> getPackageSourceList() {
+        List<String> sources = getConfiguredPackageSourceList();
+        if (sources.isEmpty()) {
+            sources.add(DEFAULT_PACKAGE_SOURCE);
+        }
+        return sources;
+    }
+
+    /**
+     * @return the configured package sources, none if the sources of the NuGet configuration files are used.
+     */
+    public List<String> getConfiguredPackageSourceList() {
+        List<String> sources = new ArrayList<>();
+        if (packageSources != null) {
+            for (String line : packageSources.split("\\r?\\n")) {
+                String source = line.trim();
+                if (!source.isEmpty()) {
+                    sources.add(source);
+                }
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * @return the time to live, in minutes, of the shared latest version cache. 0 disables the cache.
+     */
+    public int getVersionCacheTtl() {
+        return versionCacheTtl;
+    }
+
+    /**
+     * @return the maximum number of entries of the shared latest version cache.
+     */
+    public int getVersionCacheSize() {
+        return versionCacheSize;
+    }
+
+    /**
+     * @return the number of package versions looked up concurrently by a trigger poll.
+     */
+    public int getLookupThreads() {
+        return Math.max(1, lookupThreads);
+    }
+
+    /**
+     * @return the number of concurrent lookups allowed against a single feed by a trigger poll.
+     */
+    public int getLookupsPerFeed() {
+        return Math.max(1, lookupsPerFeed);
+    }
+
+    /**
+     * @return how long, in seconds, a NuGet.exe version lookup may run before being killed.
+     */
+    public int getLookupTimeout() {
+        return lookupTimeout > 0 ? lookupTimeout : DEFAULT_LOOKUP_TIMEOUT;
+    }
+
+    /**
+     * @return the command line starting a NuGet helper process, empty when NuGet.exe is started for each lookup.
+     * @see org.jenkinsci.plugins.nuget.utils.NugetHelperPool
+     */
+    public String getNugetHelper() {
+        return Util.fixNull(nugetHelper);
+    }
+
+    /**
+     * @return the number of lookups a NuGet helper process serves before being replaced.
+     */
+    public int getHelperRequests() {
+        return helperRequests > 0 ? helperRequests : DEFAULT_HELPER_REQUESTS;
+    }
+
+    /**
+     * @return the number of threads of the NuGet poll executor, 0 when polls run on the polling threads of XTrigger.
+     */
+    public int getPollThreads() {
+        return Math.max(0, pollThreads);
+    }
+
+    /**
+     * @return how often, in minutes, the feed watch looks up the packages of the jobs subscribed to it.
+     */
+    public int getFeedWatchInterval() {
+        return feedWatchInterval > 0 ? feedWatchInterval : DEFAULT_FEED_WATCH_INTERVAL;
+    }
+
+    /**
+     * @return true if the feed watch only looks up the packages changed in the catalog of V3 feeds.
+     */
+    public boolean isReadCatalogs() {
+        return readCatalogs;
+    }
+
+    /**
+     * @return the token the webhook requires, empty when the webhook is disabled.
+     */
+    public Secret getWebhookToken() {
+        return webhookToken;
+    }
+
+    /**
+     * @return the controller-wide latest version cache. Only available on the controller.
+     */
+    public synchronized SharedPackageVersionCache getVersionCache() {
+        if (versionCache == null) {
+            versionCache = new SharedPackageVersionCache(versionCacheTtl, TimeUnit.MINUTES, versionCacheSize);
+        }
+        return versionCache;
+    }
+
     @Override
     public boolean configure(StaplerRequest req, JSONObject json) {
         nugetExe = json.getString("nugetExe");
         publications = req.bindJSONToList(NugetPublication.class, json.get("publication"));
+        packageSources = json.optString("packageSources");
+        versionCacheTtl = Math.max(0, json.optInt("versionCacheTtl", DEFAULT_VERSION_CACHE_TTL));
+        versionCacheSize = Math.max(0, json.optInt("versionCacheSize", DEFAULT_VERSION_CACHE_SIZE));
+        lookupThreads = json.optInt("lookupThreads", DEFAULT_LOOKUP_THREADS);
+        lookupsPerFeed = json.optInt("lookupsPerFeed", DEFAULT_LOOKUPS_PER_FEED);
+        lookupTimeout = json.optInt("lookupTimeout", DEFAULT_LOOKUP_TIMEOUT);
+        nugetHelper = Util.fixEmptyAndTrim(json.optString("nugetHelper"));
+        helperRequests = json.optInt("helperRequests", DEFAULT_HELPER_REQUESTS);
+        pollThreads = Math.max(0, json.optInt("pollThreads", DEFAULT_POLL_THREADS));
+        feedWatchInterval = json.optInt("feedWatchInterval", DEFAULT_FEED_WATCH_INTERVAL);
+        readCatalogs = json.optBoolean("readCatalogs");
+        webhookToken = Secret.fromString(Util.fixEmptyAndTrim(json.optString("webhookToken")));
+        getVersionCache().configure(versionCacheTtl, TimeUnit.MINUTES, versionCacheSize);
         save();
         return true;
     }
@@ -52,6 +243,56 @@ public class NugetGlobalConfiguration extends GlobalConfiguration implements Ser
         return Validations.mandatory(value);
     }
 
+    public FormValidation doCheckLookupThreads(@QueryParameter String value) {
+        return Validations.positive(value);
+    }
+
+    public FormValidation doCheckLookupsPerFeed(@QueryParameter String value) {
+        return Validations.positive(value);
+    }
+
+    public FormValidation doCheckLookupTimeout(@QueryParameter String value) {
+        return Validations.positive(value);
+    }
+
+    public FormValidation doCheckHelperRequests(@QueryParameter String value) {
+        return Validations.positive(value);
+    }
+
+    public FormValidation doCheckPollThreads(@QueryParameter String value) {
+        return Validations.positiveOrZero(value);
+    }
+
+    public FormValidation doCheckFeedWatchInterval(@QueryParameter String value) {
+        return Validations.positive(value);
+    }
+
+    public FormValidation doCheckVersionCacheTtl(@QueryParameter String value) {
+        return Validations.positiveOrZero(value);
+    }
+
+    public FormValidation doCheckVersionCacheSize(@QueryParameter String value) {
+        return Validations.positiveOrZero(value);
+    }
+
+    /**
+     * Exposes the shared latest version cache counters as plain text, one {@code name value} pair per line.
+     */
+    public void doVersionCacheStats(StaplerResponse rsp) throws IOException {
+        Jenkins jenkins = Jenkins.getInstance();
+        if (jenkins != null) {
+            jenkins.checkPermission(Jenkins.ADMINISTER);
+        }
+        SharedPackageVersionCache cache = getVersionCache();
+        rsp.setContentType("text/plain;charset=UTF-8");
+        PrintWriter writer = rsp.getWriter();
+        writer.printf("nuget_version_cache_hits %d%n", cache.getHits());
+        writer.printf("nuget_version_cache_misses %d%n", cache.getMisses());
+        writer.printf("nuget_version_cache_evictions %d%n", cache.getEvictions());
+        writer.printf("nuget_version_cache_size %d%n", cache.size());
+        writer.flush();
+    }
+
     private void migrate() {
         synchronized (this) {
             Jenkins jenkins = Jenkins.getInstance();
@@ -8,6 +8,7 @@ import org.jenkins.ui.icon.IconSet;
 import org.jenkins.ui.icon.IconType;
 import org.jenkinsci.plugins.nuget.triggers.NugetTrigger;
 import org.jenkinsci.plugins.nuget.triggers.NugetTriggerAction;
+import org.jenkinsci.plugins.nuget.utils.NugetHelperPool;
 
 /**
  * @author Arnaud TAMAILLON
@@ -30,4 +31,11 @@ public class NugetPlugin  extends Plugin {
         IconSet.icons.addIcon(new Icon("icon-nuget icon-lg", "nuget/images/32x32/nuget.png", Icon.ICON_LARGE_STYLE, IconType.PLUGIN));
         IconSet.icons.addIcon(new Icon("icon-nuget icon-xlg", "nuget/images/48x48/nuget.png", Icon.ICON_XLARGE_STYLE, IconType.PLUGIN));
     }
+
+    @Override
+    public void stop() throws Exception {
+        // helpers of agents exit with the agent, when their standard input closes
+        NugetHelperPool.get().shutdown();
+        super.stop();
+    }
 }
@@ -4,7 +4,9 @@ import hudson.Util;
 import hudson.util.Secret;
 import jenkins.model.Jenkins;
 import org.apache.commons.lang.StringUtils;
+import org.jenkinsci.plugins.nuget.publishers.NugetPushMethod;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 
 import java.io.Serializable;
 import java.util.Collections;
@@ -17,6 +19,7 @@ public class NugetPublication implements Serializable {
     private final String name;
     private final String url;
     private final Secret apiKey;
+    private NugetPushMethod pushMethod;
 
     @DataBoundConstructor
     public NugetPublication(String name, String url, String apiKey) {
@@ -37,6 +40,15 @@ public class NugetPublication implements Serializable {
         return apiKey;
     }
 
+    public NugetPushMethod getPushMethod() {
+        return pushMethod == null ? NugetPushMethod.NUGET_EXE : pushMethod;
+    }
+
+    @DataBoundSetter
+    public void setPushMethod(NugetPushMethod pushMethod) {
+        this.pushMethod = pushMethod;
+    }
+
     public static final List<NugetPublication> all() {
         Jenkins jenkins = Jenkins.getInstance();
         if (jenkins != null) {
@@ -0,0 +1,47 @@
+package org.jenkinsci.plugins.nuget;
+
+import hudson.model.Action;
+import org.jenkinsci.plugins.nuget.utils.PackageUpdate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outdated packages found by the poll that triggered a build.
+ * The report is stored with the build and rendered on its page without querying the feeds again.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public class NugetUpdateReportAction implements Action {
+    private final List<PackageUpdate> updates;
+    private final int checkedPackages;
+
+    public NugetUpdateReportAction(List<PackageUpdate> updates, int checkedPackages) {
+        this.updates = new ArrayList<>(updates);
+        this.checkedPackages = checkedPackages;
+    }
+
+    @Override
+    public String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return Messages.NugetUpdateReportAction_DisplayName();
+    }
+
+    @Override
+    public String getUrlName() {
+        return null;
+    }
+
+    public List<PackageUpdate> getUpdates() {
+        return Collections.unmodifiableList(updates);
+    }
+
+    public int getCheckedPackages() {
+        return checkedPackages;
+    }
+}
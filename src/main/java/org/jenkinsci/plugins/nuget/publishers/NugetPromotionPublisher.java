@@ -125,5 +125,9 @@ public class NugetPromotionPublisher extends NugetPublisher {
         public FormValidation doCheckPublishPath(@QueryParameter String value) {
             return Validations.urlPath(value);
         }
+
+        public FormValidation doCheckParallelPushes(@QueryParameter String value) {
+            return Validations.positive(value);
+        }
     }
 }
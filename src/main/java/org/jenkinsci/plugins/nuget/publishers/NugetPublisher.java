@@ -16,6 +16,7 @@ import org.jenkinsci.plugins.nuget.NugetGlobalConfiguration;
 import org.jenkinsci.plugins.nuget.NugetPublication;
 import org.jenkinsci.plugins.nuget.utils.Validations;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
 import org.apache.commons.lang.StringUtils;
 
@@ -36,6 +37,8 @@ public class NugetPublisher extends Recorder {
     protected String nugetPublicationName;
     protected String packagesExclusionPattern;
     protected boolean doNotFailIfNoPackagesArePublished;
+    protected int parallelPushes;
+    protected boolean skipDuplicates;
 
     @DataBoundConstructor
     public NugetPublisher(String name, String packagesPattern, String publishPath, String nugetPublicationName, String packagesExclusionPattern, boolean doNotFailIfNoPackagesArePublished) {
@@ -64,7 +67,7 @@ public class NugetPublisher extends Recorder {
         listener.getLogger().format("Starting %s publication%n", expandedName);
         NugetGlobalConfiguration configuration = GlobalConfiguration.all().get(NugetGlobalConfiguration.class);
         NugetPublication publication = NugetPublication.get(nugetPublicationName);
-        NugetPublisherCallable callable = new NugetPublisherCallable(pattern, exclusionPattern, listener, configuration, expandedPublishPath, publication);
+        NugetPublisherCallable callable = new NugetPublisherCallable(pattern, exclusionPattern, listener, configuration, expandedPublishPath, publication, getParallelPushes(), skipDuplicates);
 
         FilePath filesRoot = this.getFilesRoot(build);
 
@@ -121,6 +124,27 @@ public class NugetPublisher extends Recorder {
         return doNotFailIfNoPackagesArePublished;
     }
 
+    /**
+     * @return how many packages are pushed at the same time, one by one by default.
+     */
+    public int getParallelPushes() {
+        return Math.max(1, parallelPushes);
+    }
+
+    @DataBoundSetter
+    public void setParallelPushes(int parallelPushes) {
+        this.parallelPushes = parallelPushes;
+    }
+
+    public boolean isSkipDuplicates() {
+        return skipDuplicates;
+    }
+
+    @DataBoundSetter
+    public void setSkipDuplicates(boolean skipDuplicates) {
+        this.skipDuplicates = skipDuplicates;
+    }
+
     @Extension
     public static final class NugetPublisherDescriptor extends BuildStepDescriptor<Publisher> {
 
@@ -160,5 +184,9 @@ public class NugetPublisher extends Recorder {
         public FormValidation doCheckPublishPath(@QueryParameter String value) {
             return Validations.urlPath(value);
         }
+
+        public FormValidation doCheckParallelPushes(@QueryParameter String value) {
+            return Validations.positive(value);
+        }
     }
 }
@@ -4,20 +4,46 @@ import com.google.common.collect.Lists;
 import hudson.FilePath;
 import hudson.Util;
 import hudson.model.BuildListener;
+import hudson.model.TaskListener;
 import hudson.remoting.VirtualChannel;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import hudson.util.Secret;
+import hudson.util.StreamTaskListener;
 import jenkins.MasterToSlaveFileCallable;
 import org.apache.tools.ant.DirectoryScanner;
 import org.apache.tools.ant.types.FileSet;
 import org.jenkinsci.plugins.nuget.NugetGlobalConfiguration;
 import org.jenkinsci.plugins.nuget.NugetPublication;
+import org.jenkinsci.plugins.nuget.utils.NugetFeedClient;
+import org.jenkinsci.plugins.nuget.utils.NugetHttpPushCommand;
 import org.jenkinsci.plugins.nuget.utils.NugetPublishCommand;
+import org.jenkinsci.plugins.nuget.utils.NuspecReader;
+import org.jenkinsci.plugins.nuget.utils.PackageReference;
+import org.jenkinsci.plugins.nuget.utils.PublishedPackages;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Pushes the packages of a build. When several pushes run concurrently,
+ * the output of each one is prefixed by the name of its package.
+ * <p>
+ * When duplicates are skipped, the feed is checked before pushing and the packages it already has are not uploaded again.
+ *
  * @author Arnaud TAMAILLON
  */
 class NugetPublisherCallable extends MasterToSlaveFileCallable<List<PublicationResult>> {
@@ -27,35 +53,144 @@ class NugetPublisherCallable extends MasterToSlaveFileCallable<List<PublicationR
     private final BuildListener listener;
     private final NugetGlobalConfiguration configuration;
     private final NugetPublication publication;
+    private final int parallelPushes;
+    private final boolean skipDuplicates;
 
-    NugetPublisherCallable(String packagesPattern, String packagesExclusionPattern, BuildListener listener, NugetGlobalConfiguration configuration, String publishPath, NugetPublication publication) {
+    NugetPublisherCallable(String packagesPattern, String packagesExclusionPattern, BuildListener listener, NugetGlobalConfiguration configuration, String publishPath, NugetPublication publication, int parallelPushes, boolean skipDuplicates) {
         this.packagesPattern = packagesPattern;
         this.publishPath = publishPath;
         this.packagesExclusionPattern = packagesExclusionPattern;
         this.listener = listener;
         this.configuration = configuration;
         this.publication = publication;
+        this.parallelPushes = parallelPushes;
+        this.skipDuplicates = skipDuplicates;
     }
 
     @Override
     public List<PublicationResult> invoke(File file, VirtualChannel virtualChannel) throws IOException, InterruptedException {
         List<String> packages = getFiles(file, packagesPattern, packagesExclusionPattern);
+        Map<String, PackageReference> references = skipDuplicates ? readReferences(file, packages) : Collections.emptyMap();
+        PublishedPackages publishedPackages = null;
+        Set<PackageReference> published = Collections.emptySet();
+        if (!references.isEmpty()) {
+            publishedPackages = new PublishedPackages(NugetFeedClient.get(), NugetPublishCommand.getSourceUrl(publication, publishPath));
+            published = findPublished(publishedPackages, references.values());
+        }
+        List<String> toPush = Lists.newArrayList();
+        for (String pack : packages) {
+            PackageReference reference = references.get(pack);
+            if (reference != null && published.contains(reference)) {
+                listener.getLogger().println(String.format("Package %s %s is already published, skipped.", reference.getId(), reference.getVersion()));
+            } else {
+                toPush.add(pack);
+            }
+        }
+
+        Map<String, PublicationResult> pushResults = push(file, toPush);
         List<PublicationResult> results = Lists.newArrayList();
-        for(String pack : packages) {
-            File packageFile = new File(pack);
-            NugetPublishCommand publishCommand = new NugetPublishCommand(
-                    listener,
-                    configuration,
-                    new FilePath(file),
-                    new FilePath(packageFile),
-                    publishPath,
-                    publication);
-            boolean success = publishCommand.execute();
-            results.add(new PublicationResult(packageFile.getName(), success));
+        for (String pack : packages) {
+            PublicationResult result = pushResults.get(pack);
+            if (result == null) {
+                results.add(PublicationResult.skipped(new File(pack).getName()));
+                continue;
+            }
+            PackageReference reference = references.get(pack);
+            if (publishedPackages != null && reference != null && result.isSuccess()) {
+                publishedPackages.published(reference);
+            }
+            results.add(result);
         }
         return results;
     }
 
+    private Map<String, PublicationResult> push(File file, List<String> packages) throws IOException, InterruptedException {
+        Map<String, PublicationResult> results = new HashMap<>();
+        if (parallelPushes <= 1 || packages.size() <= 1) {
+            for(String pack : packages) {
+                results.put(pack, push(file, new File(pack), listener));
+            }
+            return results;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelPushes, packages.size()),
+                new NamingThreadFactory(new DaemonThreadFactory(), "NuGet push"));
+        try {
+            List<Future<PublicationResult>> pushes = Lists.newArrayList();
+            for (String pack : packages) {
+                File packageFile = new File(pack);
+                pushes.add(executor.submit(() -> pushWithPrefixedLog(file, packageFile)));
+            }
+            for (int idx = 0; idx < pushes.size(); idx++) {
+                results.put(packages.get(idx), getResult(pushes.get(idx), new File(packages.get(idx))));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private Map<String, PackageReference> readReferences(File workDir, List<String> packages) {
+        Map<String, PackageReference> references = new HashMap<>();
+        for (String pack : packages) {
+            try {
+                references.put(pack, NuspecReader.read(resolve(workDir, new File(pack))));
+            } catch (IOException ex) {
+                listener.error(String.format("Failed to read the id and version of %s, it will be pushed: %s", pack, ex.getMessage()));
+            }
+        }
+        return references;
+    }
+
+    private Set<PackageReference> findPublished(PublishedPackages publishedPackages, Collection<PackageReference> references) {
+        try {
+            return publishedPackages.findPublished(references);
+        } catch (IOException ex) {
+            listener.error(String.format("Failed to check the packages already published, all of them will be pushed: %s", ex));
+            return Collections.emptySet();
+        }
+    }
+
+    private static File resolve(File workDir, File packageFile) {
+        // package paths are relative to the work directory NuGet.exe runs in
+        return packageFile.isAbsolute() ? packageFile : new File(workDir, packageFile.getPath());
+    }
+
+    private PublicationResult push(File workDir, File packageFile, TaskListener log) throws IOException {
+        if (publication.getPushMethod() == NugetPushMethod.HTTP) {
+            String source = NugetPublishCommand.getSourceUrl(publication, publishPath);
+            NugetHttpPushCommand pushCommand = new NugetHttpPushCommand(log, resolve(workDir, packageFile), source, Secret.toString(publication.getApiKey()));
+            pushCommand.setSkipDuplicate(skipDuplicates);
+            boolean success = pushCommand.execute();
+            return pushCommand.isDuplicate() ? PublicationResult.skipped(packageFile.getName()) : new PublicationResult(packageFile.getName(), success);
+        }
+        NugetPublishCommand publishCommand = new NugetPublishCommand(
+                log,
+                configuration,
+                new FilePath(workDir),
+                new FilePath(packageFile),
+                publishPath,
+                publication);
+        boolean success = publishCommand.execute();
+        return new PublicationResult(packageFile.getName(), success);
+    }
+
+    private PublicationResult pushWithPrefixedLog(File workDir, File packageFile) throws IOException {
+        PrefixedOutputStream out = new PrefixedOutputStream(listener.getLogger(), String.format("[%s] ", packageFile.getName()));
+        try (StreamTaskListener log = new StreamTaskListener(out, StandardCharsets.UTF_8)) {
+            return push(workDir, packageFile, log);
+        }
+    }
+
+    private PublicationResult getResult(Future<PublicationResult> push, File packageFile) throws InterruptedException {
+        try {
+            return push.get();
+        } catch (ExecutionException ex) {
+            listener.error(String.format("Failed to push %s: %s", packageFile.getName(), ex.getCause()));
+            return new PublicationResult(packageFile.getName(), false);
+        }
+    }
+
     private static List<String> getFiles(File parentPath, String pattern, String exclusionPattern) {
         FileSet fs = Util.createFileSet(parentPath, pattern, exclusionPattern);
         DirectoryScanner ds = fs.getDirectoryScanner();
@@ -0,0 +1,31 @@
+package org.jenkinsci.plugins.nuget.publishers;
+
+import org.jenkinsci.plugins.nuget.Messages;
+
+/**
+ * How packages are pushed to a NuGet publication.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public enum NugetPushMethod {
+    /**
+     * Run {@code NuGet.exe push} for each package.
+     */
+    NUGET_EXE {
+        @Override
+        public String getDisplayName() {
+            return Messages.NugetPushMethod_NugetExe();
+        }
+    },
+    /**
+     * Stream each package to the push endpoint of the feed over HTTP.
+     */
+    HTTP {
+        @Override
+        public String getDisplayName() {
+            return Messages.NugetPushMethod_Http();
+        }
+    };
+
+    public abstract String getDisplayName();
+}
@@ -0,0 +1,36 @@
+package org.jenkinsci.plugins.nuget.publishers;
+
+import hudson.console.LineTransformationOutputStream;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Copies complete lines to a shared log, each one prefixed, so that the output of concurrent pushes stays readable.
+ *
+ * @author Arnaud TAMAILLON
+ */
+class PrefixedOutputStream extends LineTransformationOutputStream {
+    private final PrintStream log;
+    private final byte[] prefix;
+
+    PrefixedOutputStream(PrintStream log, String prefix) {
+        this.log = log;
+        this.prefix = prefix.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void eol(byte[] bytes, int length) throws IOException {
+        synchronized (log) {
+            log.write(prefix, 0, prefix.length);
+            log.write(bytes, 0, length);
+            log.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        forceEol();
+    }
+}
@@ -8,12 +8,22 @@ import java.io.Serializable;
 public class PublicationResult implements Serializable {
     private final String packageName;
     private boolean success;
+    private boolean skipped;
 
     public PublicationResult(String packageName, boolean success) {
         this.packageName = packageName;
         this.success = success;
     }
 
+    /**
+     * @return the successful result of a package not pushed because the feed already has it.
+     */
+    public static PublicationResult skipped(String packageName) {
+        PublicationResult result = new PublicationResult(packageName, true);
+        result.skipped = true;
+        return result;
+    }
+
     public String getPackageName() {
         return packageName;
     }
@@ -25,4 +35,8 @@ public class PublicationResult implements Serializable {
     public void setSuccess(boolean success) {
         this.success = success;
     }
+
+    public boolean isSkipped() {
+        return skipped;
+    }
 }
@@ -0,0 +1,40 @@
+package org.jenkinsci.plugins.nuget.triggers;
+
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.model.AbstractBuild;
+import hudson.model.AbstractProject;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import org.jenkinsci.plugins.nuget.NugetCause;
+import org.jenkinsci.plugins.nuget.utils.ManifestSnapshot;
+
+import java.io.IOException;
+
+/**
+ * Takes the manifest snapshot of the jobs whose NuGet trigger polls without a workspace, at the end of each build,
+ * while the workspace is still available.
+ *
+ * @author Arnaud TAMAILLON
+ */
+@Extension
+public class ManifestSnapshotListener extends RunListener<AbstractBuild<?, ?>> {
+
+    @Override
+    public void onCompleted(AbstractBuild<?, ?> build, TaskListener listener) {
+        AbstractProject<?, ?> project = build.getProject();
+        NugetTrigger trigger = project.getTrigger(NugetTrigger.class);
+        FilePath workspace = build.getWorkspace();
+        if (trigger == null || !trigger.getPollWithoutWorkspace() || workspace == null) {
+            return;
+        }
+        try {
+            int count = ManifestSnapshot.take(workspace, NugetTrigger.getSnapshotDirectory(project), trigger.getManifestIncludes(), trigger.getExcludedDirectories());
+            listener.getLogger().println(String.format("[%s] Manifest snapshot taken: %d manifests.", NugetCause.NAME, count));
+        } catch (IOException ex) {
+            listener.error(String.format("[%s] Failed to take the manifest snapshot: %s", NugetCause.NAME, ex));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.jenkinsci.plugins.nuget.triggers;
+
+import hudson.Extension;
+import hudson.model.AbstractProject;
+import hudson.model.AsyncPeriodicWork;
+import hudson.model.TaskListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.util.StreamTaskListener;
+import jenkins.model.GlobalConfiguration;
+import jenkins.model.Jenkins;
+import org.jenkinsci.lib.xtrigger.XTriggerLog;
+import org.jenkinsci.plugins.nuget.NugetCause;
+import org.jenkinsci.plugins.nuget.NugetGlobalConfiguration;
+import org.jenkinsci.plugins.nuget.NugetUpdateReportAction;
+import org.jenkinsci.plugins.nuget.triggers.logs.InfoTriggerLog;
+import org.jenkinsci.plugins.nuget.utils.NugetCheckResult;
+import org.jenkinsci.plugins.nuget.utils.PackageWatchList;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the packages of the jobs whose NuGet trigger uses the feed watch, on the controller.
+ * <p>
+ * Triggers only subscribe the packages of their workspace, see {@link PackageWatchList}.
+ * Every feed watch interval, the latest version of each watched package is looked up once over HTTP
+ * and the jobs with outdated packages are scheduled, with the report of their updates.
+ *
+ * @author Arnaud TAMAILLON
+ */
+@Extension
+public class NugetFeedWatcher extends AsyncPeriodicWork {
+
+    private static final PackageWatchList WATCH_LIST = new PackageWatchList();
+
+    private volatile long lastRefresh;
+
+    public NugetFeedWatcher() {
+        super("NuGet feed watch");
+    }
+
+    static PackageWatchList getWatchList() {
+        return WATCH_LIST;
+    }
+
+    @Override
+    public long getRecurrencePeriod() {
+        return MIN;
+    }
+
+    @Override
+    protected void execute(TaskListener listener) throws IOException, InterruptedException {
+        NugetGlobalConfiguration configuration = GlobalConfiguration.all().get(NugetGlobalConfiguration.class);
+        if (configuration == null || WATCH_LIST.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now - lastRefresh < TimeUnit.MINUTES.toMillis(configuration.getFeedWatchInterval())) {
+            return;
+        }
+        lastRefresh = now;
+        InfoTriggerLog log = new InfoTriggerLog(new XTriggerLog(new StreamTaskListener(listener.getLogger(), StandardCharsets.UTF_8)));
+        Map<String, NugetCheckResult> updates;
+        try {
+            updates = WATCH_LIST.refresh(log, configuration);
+        } finally {
+            log.flush();
+        }
+        try (ACLContext context = ACL.as(ACL.SYSTEM)) {
+            for (Map.Entry<String, NugetCheckResult> update : updates.entrySet()) {
+                if (schedule(update.getKey(), update.getValue())) {
+                    listener.getLogger().println(String.format("Scheduling %s", update.getKey()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Schedules a job of the watch list with the report of its updates. Must run as {@link ACL#SYSTEM}.
+     *
+     * @return false if the job no longer uses the feed watch, it is unsubscribed then.
+     */
+    static boolean schedule(String jobName, NugetCheckResult result) {
+        Jenkins jenkins = Jenkins.getInstanceOrNull();
+        AbstractProject<?, ?> project = jenkins == null ? null : jenkins.getItemByFullName(jobName, AbstractProject.class);
+        NugetTrigger trigger = project == null ? null : project.getTrigger(NugetTrigger.class);
+        if (trigger == null || !trigger.getUseFeedWatch()) {
+            // the job was deleted, renamed or reconfigured since it subscribed
+            WATCH_LIST.unsubscribe(jobName);
+            return false;
+        }
+        project.scheduleBuild2(project.getQuietPeriod(), new NugetCause(),
+                new NugetUpdateReportAction(result.getUpdates(), result.getCheckedPackages()));
+        return true;
+    }
+}
@@ -0,0 +1,32 @@
+package org.jenkinsci.plugins.nuget.triggers;
+
+import org.jenkinsci.plugins.nuget.Messages;
+
+/**
+ * How the NuGet trigger retrieves the latest version of packages.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public enum NugetLookupMethod {
+    /**
+     * Run {@code NuGet.exe list} for each package.
+     */
+    NUGET_EXE {
+        @Override
+        public String getDisplayName() {
+            return Messages.NugetLookupMethod_NugetExe();
+        }
+    },
+    /**
+     * Query the package sources of the global configuration over HTTP.
+     * The flat container of V3 feeds lists unlisted versions, which NuGet.exe list does not report.
+     */
+    HTTP {
+        @Override
+        public String getDisplayName() {
+            return Messages.NugetLookupMethod_Http();
+        }
+    };
+
+    public abstract String getDisplayName();
+}
@@ -0,0 +1,74 @@
+package org.jenkinsci.plugins.nuget.triggers;
+
+import hudson.Extension;
+import hudson.model.AbstractProject;
+import hudson.model.Item;
+import hudson.model.listeners.ItemListener;
+import jenkins.model.Jenkins;
+import org.jenkinsci.plugins.nuget.utils.PackageUsageIndex;
+import org.jenkinsci.plugins.nuget.utils.PollMetrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Holds the index of the packages referenced by the jobs using the NuGet trigger, stored in {@code JENKINS_HOME},
+ * and keeps it, with the poll metrics, in sync with the deleted and renamed jobs, and the jobs whose trigger
+ * was removed or which were disabled.
+ *
+ * @author Arnaud TAMAILLON
+ */
+@Extension
+public class NugetPackageUsage extends ItemListener {
+
+    private static final Logger LOGGER = Logger.getLogger(NugetPackageUsage.class.getName());
+
+    private static PackageUsageIndex index;
+
+    /**
+     * @return the index, loaded on first use.
+     */
+    public static synchronized PackageUsageIndex getIndex() {
+        if (index == null) {
+            index = PackageUsageIndex.load(new File(Jenkins.get().getRootDir(), PackageUsageIndex.FILE_NAME));
+        }
+        return index;
+    }
+
+    @Override
+    public void onDeleted(Item item) {
+        forget(item.getFullName());
+    }
+
+    @Override
+    public void onUpdated(Item item) {
+        if (!(item instanceof AbstractProject)) {
+            return;
+        }
+        AbstractProject<?, ?> project = (AbstractProject<?, ?>) item;
+        if (project.getTrigger(NugetTrigger.class) == null || project.isDisabled()) {
+            forget(project.getFullName());
+        }
+    }
+
+    @Override
+    public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+        PollMetrics.get().remove(oldFullName);
+        try {
+            getIndex().rename(oldFullName, newFullName);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to save the NuGet package index", ex);
+        }
+    }
+
+    private static void forget(String fullName) {
+        PollMetrics.get().remove(fullName);
+        try {
+            getIndex().remove(fullName);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to save the NuGet package index", ex);
+        }
+    }
+}
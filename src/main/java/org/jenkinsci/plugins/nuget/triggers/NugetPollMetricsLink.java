@@ -0,0 +1,55 @@
+package org.jenkinsci.plugins.nuget.triggers;
+
+import hudson.Extension;
+import hudson.model.ManagementLink;
+import jenkins.model.Jenkins;
+import org.jenkinsci.plugins.nuget.Messages;
+import org.jenkinsci.plugins.nuget.utils.PollMetrics;
+import org.jenkinsci.plugins.nuget.utils.PollQueue;
+import org.kohsuke.stapler.StaplerResponse;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Management page showing which jobs and feeds the NuGet trigger polls spend their time on,
+ * and how the polls wait on the NuGet poll executor, with the same metrics exported for Prometheus at {@code JENKINS_URL/nuget-metrics/prometheus}.
+ *
+ * @author Arnaud TAMAILLON
+ */
+@Extension
+public class NugetPollMetricsLink extends ManagementLink {
+
+    public String getIconFileName() {
+        return "/plugin/nuget/images/48x48/nuget.png";
+    }
+
+    public String getDisplayName() {
+        return Messages.NugetPollMetrics_DisplayName();
+    }
+
+    @Override
+    public String getDescription() {
+        return Messages.NugetPollMetrics_Description();
+    }
+
+    public String getUrlName() {
+        return "nuget-metrics";
+    }
+
+    public PollMetrics getMetrics() {
+        return PollMetrics.get();
+    }
+
+    public PollQueue getQueue() {
+        return PollQueue.get();
+    }
+
+    public void doPrometheus(StaplerResponse rsp) throws IOException {
+        Jenkins.get().checkPermission(Jenkins.ADMINISTER);
+        rsp.setContentType("text/plain; version=0.0.4; charset=UTF-8");
+        PrintWriter writer = rsp.getWriter();
+        PollMetrics.get().writePrometheus(writer);
+        PollQueue.get().writePrometheus(writer);
+    }
+}
@@ -0,0 +1,38 @@
+package org.jenkinsci.plugins.nuget.triggers;
+
+import org.jenkinsci.plugins.nuget.Messages;
+
+/**
+ * Order in which the polls waiting on the NuGet poll executor run, within the polls against the same feed.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public enum NugetPollPriority {
+    HIGH {
+        @Override
+        public String getDisplayName() {
+            return Messages.NugetPollPriority_High();
+        }
+    },
+    NORMAL {
+        @Override
+        public String getDisplayName() {
+            return Messages.NugetPollPriority_Normal();
+        }
+    },
+    LOW {
+        @Override
+        public String getDisplayName() {
+            return Messages.NugetPollPriority_Low();
+        }
+    };
+
+    public abstract String getDisplayName();
+
+    /**
+     * @return the priority given to the poll queue, higher first.
+     */
+    public int getQueuePriority() {
+        return -ordinal();
+    }
+}
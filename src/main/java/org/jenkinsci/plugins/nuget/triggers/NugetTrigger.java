@@ -1,30 +1,53 @@
 package org.jenkinsci.plugins.nuget.triggers;
 import antlr.ANTLRException;
+import hudson.FilePath;
+import hudson.Util;
 import hudson.XmlFile;
+import hudson.model.AbstractBuild;
 import hudson.model.Items;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.util.StreamTaskListener;
 import jenkins.model.GlobalConfiguration;
 import jenkins.model.Jenkins;
 import org.jenkinsci.plugins.nuget.Messages;
 import org.jenkinsci.plugins.nuget.NugetCause;
 import org.jenkinsci.plugins.nuget.NugetGlobalConfiguration;
+import org.jenkinsci.plugins.nuget.NugetUpdateReportAction;
 import org.jenkinsci.plugins.nuget.triggers.logs.InfoTriggerLog;
 import org.jenkinsci.plugins.nuget.triggers.logs.TriggerLog;
 import org.jenkinsci.plugins.nuget.triggers.logs.VerboseTriggerLog;
+import org.jenkinsci.plugins.nuget.utils.ManifestMatcher;
+import org.jenkinsci.plugins.nuget.utils.ManifestSnapshot;
+import org.jenkinsci.plugins.nuget.utils.NugetCheckOptions;
+import org.jenkinsci.plugins.nuget.utils.NugetCheckResult;
 import org.jenkinsci.plugins.nuget.utils.NugetUpdater;
+import org.jenkinsci.plugins.nuget.utils.PollHistory;
+import org.jenkinsci.plugins.nuget.utils.PollMetrics;
+import org.jenkinsci.plugins.nuget.utils.PollQueue;
 import hudson.Extension;
 import hudson.model.AbstractProject;
 import hudson.model.Action;
 import hudson.model.Node;
+import hudson.scm.ChangeLogSet;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.jenkinsci.lib.xtrigger.AbstractTrigger;
 import org.jenkinsci.lib.xtrigger.XTriggerDescriptor;
 import org.jenkinsci.lib.xtrigger.XTriggerException;
 import org.jenkinsci.lib.xtrigger.XTriggerLog;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 
 /**
  *
@@ -32,8 +55,31 @@ import org.kohsuke.stapler.DataBoundConstructor;
  */
 public class NugetTrigger extends AbstractTrigger {
 
+    private static final Logger LOGGER = Logger.getLogger(NugetTrigger.class.getName());
+    static final String POLL_LOG = "nuget-polling.log";
+    /**
+     * Charset of the poll log, written by XTrigger or by the NuGet poll executor: XTrigger writes it in the default charset.
+     */
+    static final Charset POLL_LOG_CHARSET = Charset.defaultCharset();
+    /**
+     * Log of XTrigger when polls are queued on the NuGet poll executor, which then writes the poll log itself.
+     */
+    static final String QUEUE_LOG = "nuget-polling-queue.log";
+
     private boolean checkPrerelease;
     private boolean useVerboseLogs;
+    private NugetLookupMethod lookupMethod;
+    private boolean skipWorkspaceWalk;
+    private String manifestIncludes;
+    private String excludedDirectories;
+    private boolean reportAllUpdates;
+    private NugetUpdatePolicy updatePolicy;
+    private boolean useFeedWatch;
+    private boolean pollWithoutWorkspace;
+    private NugetPollPriority pollPriority;
+    private transient Integer lastIndexedBuild;
+    // the result of the last XTrigger poll, read back by getScheduledActions when XTrigger schedules the build
+    private transient volatile NugetCheckResult pendingReport;
 
     @DataBoundConstructor
     public NugetTrigger(String cronTabSpec, boolean checkPrerelease, boolean useVerboseLogs) throws ANTLRException {
@@ -50,15 +96,119 @@ public class NugetTrigger extends AbstractTrigger {
         return useVerboseLogs;
     }
 
+    public NugetLookupMethod getLookupMethod() {
+        return lookupMethod == null ? NugetLookupMethod.NUGET_EXE : lookupMethod;
+    }
+
+    @DataBoundSetter
+    public void setLookupMethod(NugetLookupMethod lookupMethod) {
+        this.lookupMethod = lookupMethod;
+    }
+
+    public boolean getSkipWorkspaceWalk() {
+        return skipWorkspaceWalk;
+    }
+
+    @DataBoundSetter
+    public void setSkipWorkspaceWalk(boolean skipWorkspaceWalk) {
+        this.skipWorkspaceWalk = skipWorkspaceWalk;
+    }
+
+    public String getManifestIncludes() {
+        return manifestIncludes == null ? ManifestMatcher.DEFAULT_INCLUDES : manifestIncludes;
+    }
+
+    @DataBoundSetter
+    public void setManifestIncludes(String manifestIncludes) {
+        this.manifestIncludes = Util.fixEmptyAndTrim(manifestIncludes);
+    }
+
+    public String getExcludedDirectories() {
+        return excludedDirectories == null ? ManifestMatcher.DEFAULT_EXCLUDED_DIRECTORIES : excludedDirectories;
+    }
+
+    @DataBoundSetter
+    public void setExcludedDirectories(String excludedDirectories) {
+        this.excludedDirectories = Util.fixNull(excludedDirectories).trim();
+    }
+
+    public boolean getReportAllUpdates() {
+        return reportAllUpdates;
+    }
+
+    @DataBoundSetter
+    public void setReportAllUpdates(boolean reportAllUpdates) {
+        this.reportAllUpdates = reportAllUpdates;
+    }
+
+    public NugetUpdatePolicy getUpdatePolicy() {
+        return updatePolicy == null ? NugetUpdatePolicy.MAJOR : updatePolicy;
+    }
+
+    @DataBoundSetter
+    public void setUpdatePolicy(NugetUpdatePolicy updatePolicy) {
+        this.updatePolicy = updatePolicy;
+    }
+
+    public boolean getUseFeedWatch() {
+        return useFeedWatch;
+    }
+
+    @DataBoundSetter
+    public void setUseFeedWatch(boolean useFeedWatch) {
+        this.useFeedWatch = useFeedWatch;
+    }
+
+    public boolean getPollWithoutWorkspace() {
+        return pollWithoutWorkspace;
+    }
+
+    @DataBoundSetter
+    public void setPollWithoutWorkspace(boolean pollWithoutWorkspace) {
+        this.pollWithoutWorkspace = pollWithoutWorkspace;
+    }
+
+    public NugetPollPriority getPollPriority() {
+        return pollPriority == null ? NugetPollPriority.NORMAL : pollPriority;
+    }
+
+    @DataBoundSetter
+    public void setPollPriority(NugetPollPriority pollPriority) {
+        this.pollPriority = pollPriority;
+    }
+
+    /**
+     * @return the directory of the manifest snapshot of the job, see {@link ManifestSnapshot}.
+     */
+    static File getSnapshotDirectory(AbstractProject<?, ?> job) {
+        return new File(job.getRootDir(), ManifestSnapshot.DIRECTORY_NAME);
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        if (job != null) {
+            NugetFeedWatcher.getWatchList().unsubscribe(job.getFullName());
+        }
+    }
+
     @Override
     protected File getLogFile() {
         Objects.requireNonNull(job, "job");
-        return new File(job.getRootDir(), "nuget-polling.log");
+        return new File(job.getRootDir(), isQueued(getConfiguration()) ? QUEUE_LOG : POLL_LOG);
+    }
+
+    private static NugetGlobalConfiguration getConfiguration() {
+        return GlobalConfiguration.all().get(NugetGlobalConfiguration.class);
+    }
+
+    private static boolean isQueued(NugetGlobalConfiguration configuration) {
+        return configuration != null && configuration.getPollThreads() > 0;
     }
 
     @Override
     protected boolean requiresWorkspaceForPolling() {
-        return true;
+        return !pollWithoutWorkspace;
     }
 
     @Override
@@ -68,7 +218,16 @@ public class NugetTrigger extends AbstractTrigger {
 
     @Override
     protected Action[] getScheduledActions(Node node, XTriggerLog xtl) {
-        return new Action[0];
+        NugetCheckResult report = pendingReport;
+        pendingReport = null;
+        return getReportActions(report);
+    }
+
+    private Action[] getReportActions(NugetCheckResult result) {
+        if (result == null || !reportAllUpdates || !result.isUpdated()) {
+            return new Action[0];
+        }
+        return new Action[] { new NugetUpdateReportAction(result.getUpdates(), result.getCheckedPackages()) };
     }
 
     @Override
@@ -76,11 +235,183 @@ public class NugetTrigger extends AbstractTrigger {
         if (job == null) {
             return false;
         }
-        AbstractProject project = (AbstractProject) job;
-        NugetGlobalConfiguration configuration = GlobalConfiguration.all().get(NugetGlobalConfiguration.class);
-        TriggerLog log = useVerboseLogs ? new VerboseTriggerLog(xtl) : new InfoTriggerLog(xtl);
-        NugetUpdater updater = new NugetUpdater(project.getSomeWorkspace(), configuration, checkPrerelease, log);
-        return updater.performUpdate();
+        AbstractProject<?, ?> project = (AbstractProject<?, ?>) job;
+        NugetGlobalConfiguration configuration = getConfiguration();
+        if (isQueued(configuration)) {
+            queuePoll(project, configuration, xtl);
+            return false;
+        }
+        TriggerLog log = createLog(xtl);
+        try {
+            NugetCheckResult result = poll(project, configuration, log);
+            pendingReport = result;
+            return result != null && result.isUpdated();
+        } finally {
+            // the lines of the poll are written before XTrigger logs its outcome
+            log.flush();
+        }
+    }
+
+    /**
+     * Hands the poll over to the NuGet poll executor, which schedules the job itself when packages are outdated.
+     */
+    private void queuePoll(AbstractProject<?, ?> project, NugetGlobalConfiguration configuration, XTriggerLog xtl) {
+        PollQueue queue = PollQueue.get();
+        queue.setThreads(configuration.getPollThreads());
+        String feed = NugetUpdater.getFeed(configuration, createOptions());
+        if (queue.submit(project.getFullName(), feed, getPollPriority().getQueuePriority(), () -> runQueuedPoll(project))) {
+            xtl.info(String.format("Poll queued on the NuGet poll executor, its log is written to %s.", POLL_LOG));
+        } else {
+            xtl.info("A poll of this job is already pending or running, this one is dropped.");
+        }
+    }
+
+    private void runQueuedPoll(AbstractProject<?, ?> project) {
+        File logFile = new File(project.getRootDir(), POLL_LOG);
+        try (StreamTaskListener listener = new StreamTaskListener(logFile, false, POLL_LOG_CHARSET)) {
+            XTriggerLog xtl = new XTriggerLog(listener);
+            long start = System.currentTimeMillis();
+            xtl.info(String.format("Polling started on %tc", start));
+            TriggerLog log = createLog(xtl);
+            NugetCheckResult result = null;
+            try {
+                result = poll(project, getConfiguration(), log);
+            } catch (XTriggerException ex) {
+                log.error(ex.toString());
+            } finally {
+                log.flush();
+            }
+            if (result != null && result.isUpdated()) {
+                xtl.info("Changes found. Scheduling a build.");
+                try (ACLContext context = ACL.as(ACL.SYSTEM)) {
+                    project.scheduleBuild2(project.getQuietPeriod(), new NugetCause(), getReportActions(result));
+                }
+            } else {
+                xtl.info("No changes.");
+            }
+            xtl.info(String.format("Polling complete. Took %d ms.", System.currentTimeMillis() - start));
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to write the NuGet poll log " + logFile, ex);
+        }
+    }
+
+    private TriggerLog createLog(XTriggerLog xtl) {
+        return useVerboseLogs ? new VerboseTriggerLog(xtl) : new InfoTriggerLog(xtl);
+    }
+
+    private NugetCheckOptions createOptions() {
+        NugetCheckOptions options = new NugetCheckOptions(checkPrerelease, getLookupMethod());
+        options.setManifestIncludes(getManifestIncludes());
+        options.setExcludedDirectories(getExcludedDirectories());
+        options.setReportAllUpdates(reportAllUpdates);
+        options.setUpdatePolicy(getUpdatePolicy());
+        options.setCollectOnly(useFeedWatch);
+        return options;
+    }
+
+    /**
+     * @return the result of the check, null when no build may be scheduled from it (no snapshot yet, or feed watch).
+     */
+    private NugetCheckResult poll(AbstractProject<?, ?> project, NugetGlobalConfiguration configuration, TriggerLog log) throws XTriggerException {
+        NugetCheckOptions options = createOptions();
+        FilePath workspace;
+        if (pollWithoutWorkspace) {
+            File snapshot = getSnapshotDirectory(project);
+            if (!snapshot.isDirectory()) {
+                log.info("No manifest snapshot yet, it is taken at the end of the next build.");
+                return null;
+            }
+            log.info("Checking the manifest snapshot of the last build.");
+            workspace = new FilePath(snapshot);
+        } else {
+            workspace = project.getSomeWorkspace();
+            if (skipWorkspaceWalk) {
+                options.setChangedPaths(getChangedPathsSinceLastPoll(project, workspace));
+            }
+        }
+        NugetUpdater updater = new NugetUpdater(workspace, configuration, options, log);
+        long timestamp = System.currentTimeMillis();
+        long start = System.nanoTime();
+        NugetCheckResult result = updater.check();
+        long duration = System.nanoTime() - start;
+        PollMetrics.get().record(project.getFullName(), duration, result);
+        try {
+            PollHistory.append(new File(project.getRootDir(), PollHistory.FILE_NAME),
+                    new PollHistory.Record(timestamp, TimeUnit.NANOSECONDS.toMillis(duration), result));
+        } catch (IOException ex) {
+            log.error(String.format("Failed to record the poll history: %s", ex));
+        }
+        try {
+            NugetPackageUsage.getIndex().update(project.getFullName(), result);
+        } catch (IOException ex) {
+            log.error(String.format("Failed to save the package index: %s", ex));
+        }
+        if (useFeedWatch) {
+            // the feed watch looks the versions up and schedules the job
+            NugetFeedWatcher.getWatchList().subscribe(project.getFullName(), checkPrerelease, getUpdatePolicy(), result);
+            log.info("Packages subscribed to the feed watch.");
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * @return the workspace paths changed by the builds run since the previous poll, or null when unknown
+     * (first poll since startup, or changes that cannot be located in the workspace): the workspace is walked then.
+     */
+    private synchronized Set<String> getChangedPathsSinceLastPoll(AbstractProject<?, ?> project, FilePath workspace) {
+        AbstractBuild<?, ?> lastBuild = project.getLastBuild();
+        int lastBuildNumber = lastBuild == null ? 0 : lastBuild.getNumber();
+        Integer indexedBuild = lastIndexedBuild;
+        lastIndexedBuild = lastBuildNumber;
+        if (indexedBuild == null) {
+            return null;
+        }
+        Set<String> paths = new HashSet<>();
+        if (lastBuild == null || lastBuildNumber <= indexedBuild) {
+            return paths;
+        }
+        String moduleRoot = getModuleRoot(project, workspace, lastBuild);
+        if (moduleRoot == null) {
+            return null;
+        }
+        for (AbstractBuild<?, ?> build = lastBuild; build != null && build.getNumber() > indexedBuild; build = build.getPreviousBuild()) {
+            for (ChangeLogSet.Entry entry : build.getChangeSet()) {
+                for (String path : entry.getAffectedPaths()) {
+                    // absolute paths are repository paths (Subversion), their checkout is unknown
+                    if (path.startsWith("/")) {
+                        return null;
+                    }
+                    paths.add(moduleRoot + path);
+                }
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * The changed paths of a build are relative to the root of the SCM checkout, which is not always the workspace.
+     *
+     * @return the path of the checkout relative to the workspace, ending with a slash unless it is the workspace itself,
+     * or null when there is not exactly one checkout inside the workspace.
+     */
+    private static String getModuleRoot(AbstractProject<?, ?> project, FilePath workspace, AbstractBuild<?, ?> build) {
+        if (workspace == null || project.getScm() == null) {
+            return null;
+        }
+        FilePath[] moduleRoots = project.getScm().getModuleRoots(workspace, build);
+        if (moduleRoots == null || moduleRoots.length != 1) {
+            return null;
+        }
+        String root = workspace.getRemote().replace('\\', '/');
+        String module = moduleRoots[0].getRemote().replace('\\', '/');
+        if (module.equals(root)) {
+            return "";
+        }
+        if (!module.startsWith(root + "/")) {
+            return null;
+        }
+        return module.substring(root.length() + 1) + "/";
     }
 
     @Override
@@ -98,7 +429,7 @@ public class NugetTrigger extends AbstractTrigger {
         if (job == null) {
             return Collections.emptyList();
         }
-        return Collections.singleton(new NugetTriggerAction(job, getLogFile()));
+        return Collections.singleton(new NugetTriggerAction(job, new File(job.getRootDir(), POLL_LOG)));
     }
 
     @Extension(ordinal=1000)
@@ -1,21 +1,31 @@
 package org.jenkinsci.plugins.nuget.triggers;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import hudson.Util;
 import hudson.console.AnnotatedLargeText;
 import hudson.model.Action;
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.Charset;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
 
 import hudson.model.BuildableItem;
+import javax.servlet.http.HttpServletResponse;
+import net.sf.json.JSONObject;
 import org.apache.commons.jelly.XMLOutput;
+import org.jenkinsci.plugins.nuget.utils.PollHistory;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
 
 /**
  *
  * @author bgregg
  */
 public class NugetTriggerAction implements Action {
+    /**
+     * Size of the end of the log shown by default, in bytes.
+     */
+    static final long TAIL_SIZE = 64 * 1024;
+
     private transient BuildableItem job;
     private transient File logFile;
     
@@ -42,8 +52,16 @@ public class NugetTriggerAction implements Action {
     }
     
     @SuppressWarnings("unused")
-    public String getLog() throws IOException {
-        return Util.loadFile(getLogFile());
+    public boolean isLogAvailable() {
+        return getLogFile().length() > 0;
+    }
+
+    /**
+     * @return true if the log is larger than the part of it shown by default.
+     */
+    @SuppressWarnings("unused")
+    public boolean isLogTruncated() {
+        return getLogFile().length() > TAIL_SIZE;
     }
 
     public File getLogFile() {
@@ -52,7 +70,69 @@ public class NugetTriggerAction implements Action {
 
     @SuppressWarnings("unused")
     @SuppressFBWarnings("RV_RETURN_VALUE_IGNORED")
-    public void writeLogTo(XMLOutput out) throws IOException {
-        new AnnotatedLargeText<>(getLogFile(), Charset.defaultCharset(), true, this).writeHtmlTo(0, out.asWriter());
+    public void writeLogTo(XMLOutput out, boolean full) throws IOException {
+        long offset = full ? 0 : getTailOffset(getLogFile());
+        new AnnotatedLargeText<>(getLogFile(), NugetTrigger.POLL_LOG_CHARSET, true, this).writeHtmlTo(offset, out.asWriter());
+    }
+
+    /**
+     * Streams the polls recorded in {@code nuget-poll-history} as JSON lines, oldest first, at
+     * {@code JOB_URL/nugettriggerPollLog/history?from=...&to=...}. Both bounds are optional, in milliseconds since the epoch,
+     * {@code from} included and {@code to} excluded.
+     */
+    @SuppressWarnings("unused")
+    public void doHistory(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        long from;
+        long to;
+        try {
+            from = parseTime(req.getParameter("from"), Long.MIN_VALUE);
+            to = parseTime(req.getParameter("to"), Long.MAX_VALUE);
+        } catch (NumberFormatException ex) {
+            rsp.sendError(HttpServletResponse.SC_BAD_REQUEST, "from and to must be times in milliseconds since the epoch.");
+            return;
+        }
+        rsp.setContentType("application/x-ndjson; charset=UTF-8");
+        PrintWriter writer = rsp.getWriter();
+        for (PollHistory.Record record : PollHistory.read(new File(job.getRootDir(), PollHistory.FILE_NAME), from, to)) {
+            JSONObject json = new JSONObject();
+            json.put("timestamp", record.getTimestamp());
+            json.put("durationMillis", record.getDurationMillis());
+            json.put("manifestsParsed", record.getManifestsParsed());
+            json.put("packagesChecked", record.getPackagesChecked());
+            json.put("lookups", record.getLookups());
+            json.put("lookupFailures", record.getLookupFailures());
+            json.put("cacheHits", record.getCacheHits());
+            json.put("cacheMisses", record.getCacheMisses());
+            json.put("updates", record.getUpdates());
+            json.put("result", record.getResult().name());
+            writer.write(json.toString());
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private static long parseTime(String value, long defaultValue) {
+        return value == null || value.isEmpty() ? defaultValue : Long.parseLong(value);
+    }
+
+    /**
+     * @return the start of the first line of the last {@link #TAIL_SIZE} bytes of the log.
+     */
+    static long getTailOffset(File file) throws IOException {
+        long length = file.length();
+        if (length <= TAIL_SIZE) {
+            return 0;
+        }
+        try (RandomAccessFile log = new RandomAccessFile(file, "r")) {
+            long offset = length - TAIL_SIZE;
+            log.seek(offset);
+            for (int read = log.read(); read >= 0; read = log.read()) {
+                offset++;
+                if (read == '\n') {
+                    return offset;
+                }
+            }
+            return length - TAIL_SIZE;
+        }
     }
 }
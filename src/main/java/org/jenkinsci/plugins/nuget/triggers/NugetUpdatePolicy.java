@@ -0,0 +1,93 @@
+package org.jenkinsci.plugins.nuget.triggers;
+
+import org.jenkinsci.plugins.nuget.Messages;
+import org.jenkinsci.plugins.nuget.utils.NugetVersion;
+import org.jenkinsci.plugins.nuget.utils.VersionRange;
+
+/**
+ * Which newer versions of a package trigger a build.
+ * <p>
+ * Versions are compared as NuGet versions: an equal or lower latest version is never an update.
+ * When a manifest references a range, the current version is its lowest version, the one NuGet restores.
+ * Ranges with only an upper bound are compared with it.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public enum NugetUpdatePolicy {
+    /**
+     * Any newer version.
+     */
+    MAJOR {
+        @Override
+        public String getDisplayName() {
+            return Messages.NugetUpdatePolicy_Major();
+        }
+
+        @Override
+        boolean accepts(NugetVersion current, NugetVersion latest, VersionRange range) {
+            return true;
+        }
+    },
+    /**
+     * Newer versions with the same major version.
+     */
+    MINOR {
+        @Override
+        public String getDisplayName() {
+            return Messages.NugetUpdatePolicy_Minor();
+        }
+
+        @Override
+        boolean accepts(NugetVersion current, NugetVersion latest, VersionRange range) {
+            return latest.getMajor() == current.getMajor();
+        }
+    },
+    /**
+     * Newer versions with the same major and minor versions.
+     */
+    PATCH {
+        @Override
+        public String getDisplayName() {
+            return Messages.NugetUpdatePolicy_Patch();
+        }
+
+        @Override
+        boolean accepts(NugetVersion current, NugetVersion latest, VersionRange range) {
+            return latest.getMajor() == current.getMajor() && latest.getMinor() == current.getMinor();
+        }
+    },
+    /**
+     * Newer versions allowed by the range referenced by the manifest.
+     */
+    RANGE {
+        @Override
+        public String getDisplayName() {
+            return Messages.NugetUpdatePolicy_Range();
+        }
+
+        @Override
+        boolean accepts(NugetVersion current, NugetVersion latest, VersionRange range) {
+            return range.satisfies(latest);
+        }
+    };
+
+    public abstract String getDisplayName();
+
+    abstract boolean accepts(NugetVersion current, NugetVersion latest, VersionRange range);
+
+    /**
+     * @param referenced the version or range referenced by a manifest.
+     * @param latest the latest version found on the feeds.
+     * @return true if the latest version is an update of the referenced one. Versions NuGet cannot parse are compared as text.
+     */
+    public boolean isUpdate(String referenced, String latest) {
+        VersionRange range = VersionRange.tryParse(referenced);
+        NugetVersion latestVersion = NugetVersion.tryParse(latest);
+        if (range == null || latestVersion == null) {
+            return !referenced.equalsIgnoreCase(latest);
+        }
+        // without a lower bound, NuGet restores the lowest version of the feed, which is unknown here
+        NugetVersion current = range.getMin() != null ? range.getMin() : range.getMax();
+        return latestVersion.compareTo(current) > 0 && accepts(current, latestVersion, range);
+    }
+}
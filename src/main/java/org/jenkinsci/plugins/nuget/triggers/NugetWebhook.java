@@ -0,0 +1,157 @@
+package org.jenkinsci.plugins.nuget.triggers;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.AbstractProject;
+import hudson.model.UnprotectedRootAction;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.security.csrf.CrumbExclusion;
+import hudson.util.Secret;
+import jenkins.model.GlobalConfiguration;
+import jenkins.model.Jenkins;
+import org.jenkinsci.plugins.nuget.NugetCause;
+import org.jenkinsci.plugins.nuget.NugetGlobalConfiguration;
+import org.jenkinsci.plugins.nuget.NugetUpdateReportAction;
+import org.jenkinsci.plugins.nuget.utils.NugetCheckResult;
+import org.jenkinsci.plugins.nuget.utils.NugetVersion;
+import org.jenkinsci.plugins.nuget.utils.PackageUpdate;
+import org.jenkinsci.plugins.nuget.utils.PackageUsageIndex;
+import org.kohsuke.stapler.HttpResponse;
+import org.kohsuke.stapler.HttpResponses;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Endpoint called by feeds or CI when a package version is published, so that the jobs referencing the package
+ * are scheduled within seconds instead of at the next feed watch refresh.
+ * <p>
+ * {@code POST JENKINS_URL/nuget-webhook/notify?id=<package id>&version=<version>} checks the jobs of the feed watch
+ * referencing the package, see {@link org.jenkinsci.plugins.nuget.utils.PackageWatchList#published(String, String)},
+ * then the other jobs of the NuGet trigger referencing it, found in the package usage index and checked against
+ * the versions of their last poll.
+ * The endpoint is disabled until a token is set in the global configuration, and every call must send it
+ * in the {@value #TOKEN_HEADER} header.
+ *
+ * @author Arnaud TAMAILLON
+ */
+@Extension
+public class NugetWebhook implements UnprotectedRootAction {
+
+    static final String URL_NAME = "nuget-webhook";
+    static final String TOKEN_HEADER = "X-NuGet-Webhook-Token";
+
+    private static final Logger LOGGER = Logger.getLogger(NugetWebhook.class.getName());
+
+    public String getIconFileName() {
+        return null;
+    }
+
+    public String getDisplayName() {
+        return null;
+    }
+
+    public String getUrlName() {
+        return URL_NAME;
+    }
+
+    @RequirePOST
+    public HttpResponse doNotify(StaplerRequest req, @QueryParameter String id, @QueryParameter String version) {
+        NugetGlobalConfiguration configuration = GlobalConfiguration.all().get(NugetGlobalConfiguration.class);
+        String expected = configuration == null ? "" : Secret.toString(configuration.getWebhookToken());
+        if (expected.isEmpty()) {
+            return HttpResponses.notFound();
+        }
+        if (!isValidToken(expected, req.getHeader(TOKEN_HEADER))) {
+            return HttpResponses.forbidden();
+        }
+        id = Util.fixEmptyAndTrim(id);
+        version = Util.fixEmptyAndTrim(version);
+        if (id == null || version == null) {
+            return HttpResponses.error(HttpServletResponse.SC_BAD_REQUEST, "The id and version parameters are mandatory.");
+        }
+        Map<String, NugetCheckResult> updates = NugetFeedWatcher.getWatchList().published(id, version);
+        int scheduled = 0;
+        try (ACLContext context = ACL.as(ACL.SYSTEM)) {
+            for (Map.Entry<String, NugetCheckResult> update : updates.entrySet()) {
+                if (NugetFeedWatcher.schedule(update.getKey(), update.getValue())) {
+                    scheduled++;
+                }
+            }
+            scheduled += scheduleIndexedJobs(id, version, updates.keySet());
+        }
+        LOGGER.log(Level.INFO, "{0} {1} published, {2} jobs scheduled", new Object[]{id, version, scheduled});
+        return HttpResponses.plainText(String.format("%d jobs scheduled.%n", scheduled));
+    }
+
+    /**
+     * Schedules the jobs polling on their own schedule for which the version is an update of the versions indexed by their last poll.
+     */
+    private static int scheduleIndexedJobs(String id, String version, Set<String> watchedJobs) {
+        Jenkins jenkins = Jenkins.getInstanceOrNull();
+        if (jenkins == null) {
+            return 0;
+        }
+        NugetVersion published = NugetVersion.tryParse(version);
+        boolean prerelease = published == null ? version.indexOf('-') >= 0 : published.isPrerelease();
+        PackageUsageIndex index = NugetPackageUsage.getIndex();
+        int scheduled = 0;
+        for (String job : index.getJobs(id)) {
+            if (watchedJobs.contains(job)) {
+                continue;
+            }
+            AbstractProject<?, ?> project = jenkins.getItemByFullName(job, AbstractProject.class);
+            NugetTrigger trigger = project == null ? null : project.getTrigger(NugetTrigger.class);
+            if (trigger == null || trigger.getUseFeedWatch() || project.isDisabled() || prerelease && !trigger.getCheckPrerelease()) {
+                continue;
+            }
+            List<PackageUpdate> outdated = new ArrayList<>();
+            for (Map.Entry<String, Set<String>> referenced : index.getVersions(id, job).entrySet()) {
+                if (trigger.getUpdatePolicy().isUpdate(referenced.getKey(), version)) {
+                    outdated.add(new PackageUpdate(id, referenced.getKey(), version, referenced.getValue()));
+                }
+            }
+            if (!outdated.isEmpty()) {
+                project.scheduleBuild2(project.getQuietPeriod(), new NugetCause(), new NugetUpdateReportAction(outdated, 1));
+                scheduled++;
+            }
+        }
+        return scheduled;
+    }
+
+    static boolean isValidToken(String expected, String token) {
+        // constant time comparison, not to leak the token through response times
+        return token != null && MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Callers of the webhook cannot get a crumb: the token protects the endpoint instead.
+     */
+    @Extension
+    public static class CrumbExclusionImpl extends CrumbExclusion {
+        @Override
+        public boolean process(HttpServletRequest req, HttpServletResponse resp, FilterChain chain) throws IOException, ServletException {
+            String pathInfo = req.getPathInfo();
+            if (pathInfo != null && pathInfo.startsWith("/" + URL_NAME + "/")) {
+                chain.doFilter(req, resp);
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -2,7 +2,7 @@ package org.jenkinsci.plugins.nuget.triggers.logs;
 
 import hudson.model.TaskListener;
 import org.jenkinsci.lib.xtrigger.XTriggerLog;
-import org.xml.sax.SAXException;
+import org.jenkinsci.plugins.nuget.utils.ManifestParseException;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -13,6 +13,7 @@ import java.nio.file.Path;
 public class InfoTriggerLog implements TriggerLog {
 
     protected final XTriggerLog log;
+    private transient TriggerLogBuffer buffer;
 
     public InfoTriggerLog(XTriggerLog log) {
         this.log = log;
@@ -20,31 +21,32 @@ public class InfoTriggerLog implements TriggerLog {
 
     @Override
     public TaskListener getListener() {
+        flush();
         return log.getListener();
     }
 
     @Override
     public void checkingPackageFile(Path packageFile) {
-        log.info(String.format("Checking packages file: %s", packageFile.toAbsolutePath().toString()));
+        info("Checking packages file: %s", packageFile.toAbsolutePath());
     }
 
     @Override
     public void packageHasBeenUpdated(String id, String version, String latest) {
         if (latest == null) {
-            log.info(String.format("Package %s v%s: no version found.", id, version));
+            info("Package %s v%s: no version found.", id, version);
         } else {
-            log.info(String.format("Package %s v%s should update to v%s.", id, version, latest));
+            info("Package %s v%s should update to v%s.", id, version, latest);
         }
     }
 
     @Override
-    public void errorWhileParsingPackageConfigFile(SAXException exception) {
-        log.error(exception.toString());
+    public void errorWhileParsingManifest(Path manifest, ManifestParseException exception) {
+        error("Error while parsing %s: %s", manifest.toAbsolutePath(), exception.getMessage());
     }
 
     @Override
     public void errorVisitingFile(IOException exception) {
-        log.error(exception.toString());
+        error("%s", exception);
     }
 
     @Override
@@ -53,7 +55,12 @@ public class InfoTriggerLog implements TriggerLog {
     }
 
     @Override
-    public void skippedFileNotPackagesConfig(Path fileName) {
+    public void skippedFileNotManifest(Path fileName) {
+
+    }
+
+    @Override
+    public void skippedExcludedDirectory(Path directory) {
 
     }
 
@@ -69,11 +76,35 @@ public class InfoTriggerLog implements TriggerLog {
 
     @Override
     public void error(String s) {
-        log.error(s);
+        getBuffer().add(true, s);
     }
 
     @Override
     public void info(String s) {
-        log.info(s);
+        getBuffer().add(false, s);
+    }
+
+    @Override
+    public void flush() {
+        getBuffer().flush();
+    }
+
+    /**
+     * Logs a line formatted only when written.
+     */
+    protected void info(String format, Object... arguments) {
+        getBuffer().add(false, format, arguments);
+    }
+
+    protected void error(String format, Object... arguments) {
+        getBuffer().add(true, format, arguments);
+    }
+
+    private synchronized TriggerLogBuffer getBuffer() {
+        // not serialized: the copy of the log sent to an agent buffers its own lines
+        if (buffer == null) {
+            buffer = new TriggerLogBuffer(log);
+        }
+        return buffer;
     }
 }
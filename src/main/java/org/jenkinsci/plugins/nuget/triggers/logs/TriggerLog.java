@@ -2,7 +2,7 @@ package org.jenkinsci.plugins.nuget.triggers.logs;
 
 import hudson.model.TaskListener;
 import org.jenkinsci.lib.xtrigger.XTriggerLog;
-import org.xml.sax.SAXException;
+import org.jenkinsci.plugins.nuget.utils.ManifestParseException;
 
 import java.io.IOException;
 import java.io.Serializable;
@@ -18,16 +18,22 @@ public interface TriggerLog extends Serializable {
     void checkingPackageFile(Path packageFile);
     void packageHasBeenUpdated(String id, String version, String latest);
 
-    void errorWhileParsingPackageConfigFile(SAXException exception);
+    void errorWhileParsingManifest(Path manifest, ManifestParseException exception);
     void errorVisitingFile(IOException exc);
 
     void skippingFileWithNoFileName();
-    void skippedFileNotPackagesConfig(Path fileName);
+    void skippedFileNotManifest(Path fileName);
+    void skippedExcludedDirectory(Path directory);
 
     void packageVersionRetrieved(String id, String latest);
     void reusingCachedPackageVersion(String id);
 
     void error(String s);
     void info(String s);
+
+    /**
+     * Writes the buffered lines to the listener before returning.
+     */
+    void flush();
 }
 
@@ -0,0 +1,130 @@
+package org.jenkinsci.plugins.nuget.triggers.logs;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import org.jenkinsci.lib.xtrigger.XTriggerLog;
+
+import java.io.PrintStream;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers the lines of a trigger log and writes them in batches, from a single writer thread per JVM.
+ * <p>
+ * Messages are queued with their arguments and only formatted when written, so logging from the lookup threads
+ * never waits for the log file, nor for the agent channel when the poll runs on an agent.
+ * Pending lines are written every {@link #WRITE_INTERVAL_MILLIS}, and by {@link #flush()}.
+ * <p>
+ * XTrigger rewrites the log file for each poll: the lines of a single poll are capped at {@link #MAX_POLL_LOG_SIZE}
+ * characters, beyond which only errors are written, so a verbose poll of a large workspace cannot fill the disk.
+ *
+ * @author Arnaud TAMAILLON
+ */
+final class TriggerLogBuffer {
+
+    static final long WRITE_INTERVAL_MILLIS = 200;
+    static final long MAX_POLL_LOG_SIZE = 10 * 1024 * 1024;
+    static final String ERROR_PREFIX = "[ERROR] - ";
+
+    private static final Set<TriggerLogBuffer> SCHEDULED = ConcurrentHashMap.newKeySet();
+    private static final ScheduledExecutorService WRITER = new ScheduledThreadPoolExecutor(1, new NamingThreadFactory(new DaemonThreadFactory(), "NuGet trigger log writer"));
+
+    static {
+        WRITER.scheduleWithFixedDelay(TriggerLogBuffer::writeScheduled, WRITE_INTERVAL_MILLIS, WRITE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private final XTriggerLog log;
+    private final ConcurrentLinkedQueue<Line> lines = new ConcurrentLinkedQueue<>();
+    private volatile boolean scheduled;
+    private long written;
+    private int dropped;
+
+    TriggerLogBuffer(XTriggerLog log) {
+        this.log = log;
+    }
+
+    /**
+     * @param format a {@link String#format(String, Object...)} format, used as is when there are no arguments.
+     */
+    void add(boolean error, String format, Object... arguments) {
+        lines.add(new Line(error, format, arguments));
+        if (!scheduled) {
+            schedule();
+        }
+    }
+
+    /**
+     * Writes the pending lines before returning.
+     */
+    synchronized void flush() {
+        StringBuilder batch = new StringBuilder();
+        for (Line line = lines.poll(); line != null; line = lines.poll()) {
+            String text = line.format();
+            if (!line.error && written + text.length() > MAX_POLL_LOG_SIZE) {
+                dropped++;
+                continue;
+            }
+            written += text.length();
+            if (line.error) {
+                batch.append(ERROR_PREFIX);
+            }
+            batch.append(text).append(System.lineSeparator());
+        }
+        if (dropped > 0) {
+            batch.append(String.format("%d lines not logged: the log of this poll exceeds %d characters.%n", dropped, MAX_POLL_LOG_SIZE));
+            dropped = 0;
+        }
+        if (batch.length() > 0) {
+            PrintStream logger = log.getListener().getLogger();
+            logger.print(batch);
+            logger.flush();
+        }
+    }
+
+    private void schedule() {
+        synchronized (SCHEDULED) {
+            if (!scheduled) {
+                scheduled = true;
+                SCHEDULED.add(this);
+            }
+        }
+    }
+
+    private static void writeScheduled() {
+        for (TriggerLogBuffer buffer : SCHEDULED) {
+            synchronized (SCHEDULED) {
+                SCHEDULED.remove(buffer);
+                buffer.scheduled = false;
+            }
+            try {
+                buffer.flush();
+            } catch (RuntimeException ex) {
+                // the poll is over and its listener closed: its remaining lines are lost
+                buffer.lines.clear();
+            }
+            if (!buffer.lines.isEmpty()) {
+                buffer.schedule();
+            }
+        }
+    }
+
+    private static final class Line {
+        private final boolean error;
+        private final String format;
+        private final Object[] arguments;
+
+        private Line(boolean error, String format, Object[] arguments) {
+            this.error = error;
+            this.format = format;
+            this.arguments = arguments;
+        }
+
+        private String format() {
+            return arguments.length == 0 ? format : String.format(format, arguments);
+        }
+    }
+}
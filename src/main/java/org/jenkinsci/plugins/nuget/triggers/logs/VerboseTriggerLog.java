@@ -15,25 +15,31 @@ public class VerboseTriggerLog extends InfoTriggerLog {
 
     @Override
     public void skippingFileWithNoFileName() {
-        log.info("Skipped file (no file name can be retrieved)");
+        info("Skipped file (no file name can be retrieved)");
     }
 
     @Override
-    public void skippedFileNotPackagesConfig(Path fileName) {
-        log.info(String.format("Skipped file (not packages.config): %s", fileName.toAbsolutePath().toString()));
+    public void skippedFileNotManifest(Path fileName) {
+        info("Skipped file (not a manifest): %s", fileName.toAbsolutePath());
+    }
+
+    @Override
+    public void skippedExcludedDirectory(Path directory) {
+        info("Skipped excluded directory: %s", directory.toAbsolutePath());
     }
 
     @Override
     public void packageVersionRetrieved(String id, String latest) {
         if (latest == null) {
-            log.info(String.format("Latest version for Package %s: no version found.", id));
+            info("Latest version for Package %s: no version found.", id);
         } else {
-            log.info(String.format("Latest version for Package %s is v%s.", id, latest));        }
+            info("Latest version for Package %s is v%s.", id, latest);
+        }
 
     }
 
     @Override
     public void reusingCachedPackageVersion(String id) {
-        log.info(String.format("Reusing cached version for Package %s.", id));
+        info("Reusing cached version for Package %s.", id);
     }
 }
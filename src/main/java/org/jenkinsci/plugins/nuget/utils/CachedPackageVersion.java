@@ -0,0 +1,32 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.io.Serializable;
+
+/**
+ * A cached latest version with its remaining time to live, so that a copy of the entry, such as the one
+ * kept by an agent, expires with the original rather than a full time to live later.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public final class CachedPackageVersion implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String version;
+    private final long timeToLive;
+
+    public CachedPackageVersion(String version, long timeToLive) {
+        this.version = version;
+        this.timeToLive = timeToLive;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the time left before the entry expires, in milliseconds.
+     */
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+}
@@ -0,0 +1,138 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks the health of each feed, for all the lookups of the JVM.
+ * <p>
+ * After {@link #FAILURE_THRESHOLD} consecutive failed lookups, the circuit of a feed opens: lookups against it fail at once,
+ * without starting NuGet.exe or connecting to the feed, until the open period ends. A single probe lookup is then let through.
+ * Its success closes the circuit, its failure opens it again for twice as long, up to {@link #MAX_OPEN_MILLIS}.
+ * <p>
+ * One instance is shared per JVM, see {@link #get()}.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public class FeedCircuitBreaker {
+
+    static final int FAILURE_THRESHOLD = 3;
+    static final long MIN_OPEN_MILLIS = 30000;
+    static final long MAX_OPEN_MILLIS = 15 * 60000;
+    static final long MIN_BACKOFF_MILLIS = 1000;
+    static final long MAX_BACKOFF_MILLIS = 30000;
+
+    private static final FeedCircuitBreaker INSTANCE = new FeedCircuitBreaker(System::currentTimeMillis);
+
+    private final ConcurrentMap<String, FeedState> feeds = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+
+    FeedCircuitBreaker(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public static FeedCircuitBreaker get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return true if a lookup may be sent to the feed. When it is the probe of an open circuit,
+     * its outcome must be recorded, or the probe cancelled.
+     */
+    boolean allowRequest(String feed) {
+        FeedState state = getState(feed);
+        synchronized (state) {
+            if (state.openUntil == 0) {
+                return true;
+            }
+            if (state.probing || clock.getAsLong() < state.openUntil) {
+                return false;
+            }
+            state.probing = true;
+            return true;
+        }
+    }
+
+    void recordSuccess(String feed) {
+        FeedState state = getState(feed);
+        synchronized (state) {
+            state.failures = 0;
+            state.openUntil = 0;
+            state.openMillis = 0;
+            state.probing = false;
+        }
+    }
+
+    void recordFailure(String feed) {
+        FeedState state = getState(feed);
+        synchronized (state) {
+            state.failures++;
+            if (state.probing) {
+                state.probing = false;
+                state.openMillis = Math.min(MAX_OPEN_MILLIS, state.openMillis * 2);
+                state.openUntil = clock.getAsLong() + state.openMillis;
+            } else if (state.openUntil == 0 && state.failures >= FAILURE_THRESHOLD) {
+                state.openMillis = MIN_OPEN_MILLIS;
+                state.openUntil = clock.getAsLong() + state.openMillis;
+            }
+        }
+    }
+
+    /**
+     * Releases the probe of an interrupted lookup, without changing the health of the feed.
+     */
+    void cancel(String feed) {
+        FeedState state = getState(feed);
+        synchronized (state) {
+            state.probing = false;
+        }
+    }
+
+    /**
+     * @return true if lookups against the feed are currently short-circuited.
+     */
+    public boolean isOpen(String feed) {
+        FeedState state = feeds.get(feed);
+        if (state == null) {
+            return false;
+        }
+        synchronized (state) {
+            return state.openUntil != 0;
+        }
+    }
+
+    /**
+     * @return when the next probe of the feed is allowed, in milliseconds since the epoch, 0 if its circuit is closed.
+     */
+    public long getRetryTime(String feed) {
+        FeedState state = feeds.get(feed);
+        if (state == null) {
+            return 0;
+        }
+        synchronized (state) {
+            return state.openUntil;
+        }
+    }
+
+    /**
+     * @return the delay before a retry: exponential in the number of attempts already made, with full jitter
+     * so that the lookups failing together do not retry together.
+     */
+    static long getBackoffMillis(int attempt) {
+        long ceiling = MIN_BACKOFF_MILLIS << Math.min(Math.max(0, attempt - 1), 16);
+        return ThreadLocalRandom.current().nextLong(Math.min(ceiling, MAX_BACKOFF_MILLIS) + 1);
+    }
+
+    private FeedState getState(String feed) {
+        return feeds.computeIfAbsent(feed, key -> new FeedState());
+    }
+
+    private static final class FeedState {
+        private int failures;
+        private long openUntil;
+        private long openMillis;
+        private boolean probing;
+    }
+}
@@ -0,0 +1,52 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limits the number of concurrent lookups against each feed, across all the polls of the JVM.
+ *
+ * @author Arnaud TAMAILLON
+ */
+class FeedThrottle {
+    private static FeedThrottle instance;
+
+    private final int permits;
+    private final ConcurrentMap<String, Semaphore> semaphores = new ConcurrentHashMap<>();
+
+    FeedThrottle(int permits) {
+        this.permits = Math.max(1, permits);
+    }
+
+    /**
+     * @return the throttle shared by the polls, replaced when the number of lookups per feed changes.
+     * Lookups started under a replaced throttle release their permits to it.
+     */
+    static synchronized FeedThrottle get(int permits) {
+        if (instance == null || instance.permits != Math.max(1, permits)) {
+            instance = new FeedThrottle(permits);
+        }
+        return instance;
+    }
+
+    void acquire(String feed) throws InterruptedException {
+        getSemaphore(feed).acquire();
+    }
+
+    void release(String feed) {
+        getSemaphore(feed).release();
+    }
+
+    private Semaphore getSemaphore(String feed) {
+        Semaphore semaphore = semaphores.get(feed);
+        if (semaphore == null) {
+            Semaphore created = new Semaphore(permits);
+            semaphore = semaphores.putIfAbsent(feed, created);
+            if (semaphore == null) {
+                semaphore = created;
+            }
+        }
+        return semaphore;
+    }
+}
@@ -0,0 +1,186 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A minimal pull reader for JSON documents, reading names and scalar values one at a time
+ * so that large documents never need to be held in memory.
+ *
+ * @author Arnaud TAMAILLON
+ */
+class JsonStreamReader {
+
+    private final Reader in;
+    private final char[] buffer;
+    private final StringBuilder text = new StringBuilder();
+    private int position;
+    private int limit;
+    private long offset;
+
+    /**
+     * @param buffer the read buffer, which may be reused once this reader is done.
+     */
+    JsonStreamReader(Reader in, char[] buffer) {
+        this.in = in;
+        this.buffer = buffer;
+    }
+
+    void beginObject() throws IOException, ManifestParseException {
+        expect('{');
+    }
+
+    void endObject() throws IOException, ManifestParseException {
+        expect('}');
+    }
+
+    void beginArray() throws IOException, ManifestParseException {
+        expect('[');
+    }
+
+    void endArray() throws IOException, ManifestParseException {
+        expect(']');
+    }
+
+    /**
+     * @return true if the current object or array has another member.
+     */
+    boolean hasNext() throws IOException, ManifestParseException {
+        int c = peek();
+        return c != '}' && c != ']';
+    }
+
+    String nextName() throws IOException, ManifestParseException {
+        String name = readString();
+        expect(':');
+        return name;
+    }
+
+    /**
+     * @return the next value if it is a scalar, null if it is a JSON null, an object or an array, which are skipped.
+     */
+    String nextScalar() throws IOException, ManifestParseException {
+        int c = peek();
+        if (c == '"') {
+            return readString();
+        }
+        if (c == '{' || c == '[') {
+            skipValue();
+            return null;
+        }
+        String literal = readLiteral();
+        return "null".equals(literal) ? null : literal;
+    }
+
+    void skipValue() throws IOException, ManifestParseException {
+        int c = peek();
+        if (c == '"') {
+            readString();
+        } else if (c == '{' || c == '[') {
+            read();
+            while (hasNext()) {
+                if (c == '{') {
+                    nextName();
+                }
+                skipValue();
+            }
+            expect(c == '{' ? '}' : ']');
+        } else {
+            readLiteral();
+        }
+    }
+
+    private String readString() throws IOException, ManifestParseException {
+        expect('"');
+        text.setLength(0);
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return text.toString();
+            }
+            if (c == '\\') {
+                c = read();
+                switch (c) {
+                    case 'b': text.append('\b'); break;
+                    case 'f': text.append('\f'); break;
+                    case 'n': text.append('\n'); break;
+                    case 'r': text.append('\r'); break;
+                    case 't': text.append('\t'); break;
+                    case 'u':
+                        int code = 0;
+                        for (int idx = 0; idx < 4; idx++) {
+                            int digit = Character.digit(read(), 16);
+                            if (digit < 0) {
+                                throw error("Invalid unicode escape");
+                            }
+                            code = code * 16 + digit;
+                        }
+                        text.append((char) code);
+                        break;
+                    default: text.append((char) c);
+                }
+            } else {
+                text.append((char) c);
+            }
+        }
+    }
+
+    private String readLiteral() throws IOException, ManifestParseException {
+        text.setLength(0);
+        while (true) {
+            int c = fill() ? buffer[position] : -1;
+            if (c == -1 || c == ',' || c == '}' || c == ']' || Character.isWhitespace(c)) {
+                break;
+            }
+            text.append((char) c);
+            position++;
+        }
+        if (text.length() == 0) {
+            throw error("Value expected");
+        }
+        return text.toString();
+    }
+
+    private void expect(char expected) throws IOException, ManifestParseException {
+        if (peek() != expected) {
+            throw error("'" + expected + "' expected");
+        }
+        position++;
+    }
+
+    /**
+     * @return the next significant character, without consuming it. Commas separating members are skipped.
+     */
+    private int peek() throws IOException, ManifestParseException {
+        while (fill()) {
+            char c = buffer[position];
+            if (Character.isWhitespace(c) || c == ',' || c == '\uFEFF') {
+                position++;
+            } else {
+                return c;
+            }
+        }
+        throw error("Unexpected end of document");
+    }
+
+    private int read() throws IOException, ManifestParseException {
+        if (!fill()) {
+            throw error("Unexpected end of document");
+        }
+        return buffer[position++];
+    }
+
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        offset += limit;
+        position = 0;
+        limit = Math.max(0, in.read(buffer, 0, buffer.length));
+        return limit > 0;
+    }
+
+    private ManifestParseException error(String message) {
+        return new ManifestParseException(message + " at offset " + (offset + position));
+    }
+}
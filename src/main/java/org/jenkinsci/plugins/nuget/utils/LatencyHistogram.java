@@ -0,0 +1,88 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Distribution of durations over fixed buckets, cheap enough to record every lookup and safe to record concurrently.
+ * Histograms recorded on agents are sent back with the poll and added to the ones of the controller.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public class LatencyHistogram implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The upper bound of each bucket, in milliseconds. A last bucket counts the longer durations.
+     */
+    static final long[] BOUNDS_MILLIS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, 60000, 120000};
+
+    private final AtomicLongArray counts = new AtomicLongArray(BOUNDS_MILLIS.length + 1);
+    private final AtomicLong sumNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < BOUNDS_MILLIS.length && millis > BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        counts.incrementAndGet(bucket);
+        sumNanos.addAndGet(nanos);
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int bucket = 0; bucket < counts.length(); bucket++) {
+            counts.addAndGet(bucket, other.counts.get(bucket));
+        }
+        sumNanos.addAndGet(other.sumNanos.get());
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (int bucket = 0; bucket < counts.length(); bucket++) {
+            count += counts.get(bucket);
+        }
+        return count;
+    }
+
+    public long getSumNanos() {
+        return sumNanos.get();
+    }
+
+    /**
+     * @return the mean duration in milliseconds, 0 if nothing was recorded.
+     */
+    public long getMeanMillis() {
+        long count = getCount();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(sumNanos.get() / count);
+    }
+
+    /**
+     * @return the upper bound of the bucket holding the given percentile, in milliseconds, -1 if beyond the last bound.
+     */
+    public long getPercentileMillis(double percentile) {
+        long count = getCount();
+        long rank = (long) Math.ceil(count * percentile / 100);
+        long cumulated = 0;
+        for (int bucket = 0; bucket < BOUNDS_MILLIS.length; bucket++) {
+            cumulated += counts.get(bucket);
+            if (cumulated >= rank) {
+                return BOUNDS_MILLIS[bucket];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the number of durations up to the bound of the bucket, included, as in a Prometheus histogram.
+     */
+    long getCumulativeCount(int bucket) {
+        long cumulated = 0;
+        for (int idx = 0; idx <= bucket; idx++) {
+            cumulated += counts.get(idx);
+        }
+        return cumulated;
+    }
+}
@@ -0,0 +1,18 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.io.IOException;
+
+/**
+ * Retrieves the latest version of a package.
+ *
+ * @author Arnaud TAMAILLON
+ */
+interface LatestPackageVersionCommand {
+
+    boolean execute() throws IOException;
+
+    /**
+     * @return the latest version, or null if none was found.
+     */
+    String getVersion();
+}
@@ -0,0 +1,181 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the dependency manifests of a workspace, persisted between polls.
+ * <p>
+ * Each manifest is recorded with its modification time, size, content hash and parsed packages,
+ * so unchanged manifests are never parsed again. The modification time and size are checked first,
+ * the hash only when they changed (a checkout touching a file without modifying it).
+ *
+ * @author Arnaud TAMAILLON
+ */
+class ManifestIndex {
+
+    static final String FILE_NAME = "nuget-manifest-index";
+    private static final int MAGIC = 0x4e474d49;
+    // bumped whenever the parsed packages change meaning, so that indexes of older parsers are dropped
+    private static final int FORMAT_VERSION = 2;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * @return the index file of a workspace, stored next to it like other Jenkins workspace temporary files.
+     */
+    static File getIndexFile(File workspace) {
+        return new File(new File(workspace.getParentFile(), workspace.getName() + "@tmp"), FILE_NAME);
+    }
+
+    /**
+     * @return the persisted index, or null if there is none or it cannot be read.
+     */
+    static ManifestIndex load(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            ManifestIndex index = new ManifestIndex();
+            int count = in.readInt();
+            for (int idx = 0; idx < count; idx++) {
+                String path = in.readUTF();
+                long lastModified = in.readLong();
+                long size = in.readLong();
+                String hash = in.readUTF();
+                int packageCount = in.readInt();
+                List<PackageReference> packages = new ArrayList<>(packageCount);
+                for (int pkg = 0; pkg < packageCount; pkg++) {
+                    packages.add(new PackageReference(in.readUTF(), in.readUTF()));
+                }
+                index.entries.put(path, new Entry(lastModified, size, hash, packages));
+            }
+            return index;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    void save(File file) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent);
+        }
+        // concurrent polls of the workspace each write their own file, the last move wins
+        Path temp = Files.createTempFile(file.getAbsoluteFile().getParentFile().toPath(), file.getName(), ".tmp");
+        try {
+            write(temp);
+            Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void write(Path temp) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+                Entry entry = mapEntry.getValue();
+                out.writeUTF(mapEntry.getKey());
+                out.writeLong(entry.lastModified);
+                out.writeLong(entry.size);
+                out.writeUTF(entry.hash);
+                out.writeInt(entry.packages.size());
+                for (PackageReference reference : entry.packages) {
+                    out.writeUTF(reference.getId());
+                    out.writeUTF(reference.getVersion());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the packages of the manifest if it did not change since it was indexed, or null.
+     */
+    List<PackageReference> getUnchangedPackages(String path, Path file, long lastModified, long size) throws IOException {
+        Entry entry = entries.get(path);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.lastModified == lastModified && entry.size == size) {
+            return entry.packages;
+        }
+        if (entry.size == size && entry.hash.equals(hash(file))) {
+            entries.put(path, new Entry(lastModified, size, entry.hash, entry.packages));
+            return entry.packages;
+        }
+        return null;
+    }
+
+    void put(String path, Path file, long lastModified, long size, List<PackageReference> packages) throws IOException {
+        entries.put(path, new Entry(lastModified, size, hash(file), Collections.unmodifiableList(new ArrayList<>(packages))));
+    }
+
+    /**
+     * Forgets the manifests that were not seen during the last scan.
+     */
+    void retain(Set<String> paths) {
+        entries.keySet().retainAll(paths);
+    }
+
+    Set<String> getPaths() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    static String hash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IOException(ex);
+        }
+        byte[] buffer = new byte[8192];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static final class Entry {
+        private final long lastModified;
+        private final long size;
+        private final String hash;
+        private final List<PackageReference> packages;
+
+        private Entry(long lastModified, long size, String hash, List<PackageReference> packages) {
+            this.lastModified = lastModified;
+            this.size = size;
+            this.hash = hash;
+            this.packages = packages;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Selects the dependency manifests of a workspace and the directories that are not worth walking.
+ * <p>
+ * Include patterns are Ant-like globs ({@code **} spans directories, {@code *} and {@code ?} do not)
+ * matched case insensitively against workspace relative paths. A pattern without any directory
+ * matches at any depth. Excluded directories are plain names, pruned wherever they appear.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public class ManifestMatcher {
+
+    public static final String DEFAULT_INCLUDES = "**/packages.config, **/*.csproj, **/*.fsproj, **/*.vbproj, **/Directory.Packages.props, **/packages.lock.json";
+    public static final String DEFAULT_EXCLUDED_DIRECTORIES = ".git, .svn, .hg, .vs, packages, bin, obj, node_modules";
+
+    private final List<Pattern> includes = new ArrayList<>();
+    private final Set<String> excludedDirectories = new HashSet<>();
+
+    ManifestMatcher(String includes, String excludedDirectories) {
+        for (String include : split(includes == null ? DEFAULT_INCLUDES : includes)) {
+            this.includes.add(toPattern(include.contains("/") ? include : "**/" + include));
+        }
+        for (String directory : split(excludedDirectories == null ? DEFAULT_EXCLUDED_DIRECTORIES : excludedDirectories)) {
+            this.excludedDirectories.add(directory.toLowerCase(Locale.ENGLISH));
+        }
+    }
+
+    boolean isExcludedDirectory(String name) {
+        return excludedDirectories.contains(name.toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * @param path a workspace relative path, using {@code /} as separator.
+     */
+    boolean isManifest(String path) {
+        for (Pattern include : includes) {
+            if (include.matcher(path).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param path a workspace relative path, using {@code /} as separator.
+     * @return true if the path is a manifest outside of any excluded directory.
+     */
+    boolean isIncluded(String path) {
+        String[] segments = path.split("/");
+        for (int idx = 0; idx < segments.length - 1; idx++) {
+            if (isExcludedDirectory(segments[idx])) {
+                return false;
+            }
+        }
+        return isManifest(path);
+    }
+
+    private static List<String> split(String value) {
+        List<String> values = new ArrayList<>();
+        for (String part : value.split("[,\\r\\n]+")) {
+            String trimmed = part.trim().replace('\\', '/');
+            if (!trimmed.isEmpty()) {
+                values.add(trimmed);
+            }
+        }
+        return values;
+    }
+
+    static Pattern toPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (int idx = 0; idx < glob.length(); idx++) {
+            char c = glob.charAt(idx);
+            if (c == '*' && idx + 1 < glob.length() && glob.charAt(idx + 1) == '*') {
+                boolean directories = idx + 2 < glob.length() && glob.charAt(idx + 2) == '/';
+                regex.append(directories ? "(?:.*/)?" : ".*");
+                idx += directories ? 2 : 1;
+            } else if (c == '*') {
+                regex.append("[^/]*");
+            } else if (c == '?') {
+                regex.append("[^/]");
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE);
+    }
+}
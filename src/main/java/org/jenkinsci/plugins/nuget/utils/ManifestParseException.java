@@ -0,0 +1,17 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+/**
+ * Thrown when a dependency manifest cannot be read.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public class ManifestParseException extends Exception {
+
+    public ManifestParseException(String message) {
+        super(message);
+    }
+
+    public ManifestParseException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,28 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Reads the packages referenced by one kind of dependency manifest.
+ * <p>
+ * A parser is created once per poll and reused for every manifest it accepts, it is never used by several threads at once.
+ *
+ * @author Arnaud TAMAILLON
+ * @see ManifestParsers
+ */
+public interface ManifestParser {
+
+    /**
+     * @param fileName the name of the manifest, without directory.
+     * @return true if this parser understands the manifest.
+     */
+    boolean accepts(String fileName);
+
+    /**
+     * @return the packages referenced by the manifest, with the versions they are pinned to.
+     * @throws ManifestParseException if the manifest is malformed.
+     */
+    List<PackageReference> parse(Path file) throws IOException, ManifestParseException;
+}
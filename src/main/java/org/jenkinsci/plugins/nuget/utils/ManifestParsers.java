@@ -0,0 +1,41 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The manifest parsers known to the trigger.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public final class ManifestParsers {
+
+    private final List<ManifestParser> parsers;
+
+    public ManifestParsers(List<ManifestParser> parsers) {
+        this.parsers = new ArrayList<>(parsers);
+    }
+
+    /**
+     * @return new instances of the packages.config, project file and packages.lock.json parsers.
+     */
+    public static ManifestParsers createDefault() {
+        return new ManifestParsers(Arrays.asList(
+                new PackagesConfigParser(),
+                new ProjectFileParser(),
+                new PackagesLockFileParser()));
+    }
+
+    /**
+     * @return the first parser accepting the file, or null if none does.
+     */
+    public ManifestParser find(String fileName) {
+        for (ManifestParser parser : parsers) {
+            if (parser.accepts(fileName)) {
+                return parser;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,114 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import hudson.FilePath;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Copy of the dependency manifests of a workspace, kept on the controller so that polls can check them
+ * without any agent.
+ * <p>
+ * The manifests are read on the agent in a single call and written under the snapshot directory with their workspace
+ * relative paths. Unchanged manifests are not rewritten, so the manifest index of the snapshot keeps matching them,
+ * and the manifests gone from the workspace are deleted.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public final class ManifestSnapshot {
+
+    public static final String DIRECTORY_NAME = "nuget-manifests";
+
+    private ManifestSnapshot() {
+    }
+
+    /**
+     * Replaces the snapshot with the manifests of the workspace.
+     *
+     * @return the number of manifests in the snapshot.
+     */
+    public static int take(FilePath workspace, File snapshot, String includes, String excludedDirectories) throws IOException, InterruptedException {
+        Map<String, byte[]> manifests = workspace.act(new ReadManifests(includes, excludedDirectories));
+        Path root = snapshot.toPath().toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        Set<Path> written = new HashSet<>();
+        for (Map.Entry<String, byte[]> manifest : manifests.entrySet()) {
+            // the paths come from the agent: never write outside of the snapshot
+            Path file = root.resolve(manifest.getKey()).normalize();
+            if (!file.startsWith(root) || file.equals(root)) {
+                throw new IOException("Invalid manifest path " + manifest.getKey());
+            }
+            if (!Files.isRegularFile(file) || !Arrays.equals(Files.readAllBytes(file), manifest.getValue())) {
+                Files.createDirectories(file.getParent());
+                Files.write(file, manifest.getValue());
+            }
+            written.add(file);
+        }
+        deleteOthers(root, written);
+        return manifests.size();
+    }
+
+    private static void deleteOthers(Path root, Set<Path> kept) throws IOException {
+        List<Path> others;
+        try (Stream<Path> files = Files.walk(root)) {
+            others = files.filter(Files::isRegularFile).filter(file -> !kept.contains(file)).collect(Collectors.toList());
+        }
+        for (Path file : others) {
+            Files.delete(file);
+        }
+    }
+
+    private static final class ReadManifests extends MasterToSlaveFileCallable<Map<String, byte[]>> {
+        private static final long serialVersionUID = 1L;
+
+        private final String includes;
+        private final String excludedDirectories;
+
+        private ReadManifests(String includes, String excludedDirectories) {
+            this.includes = includes;
+            this.excludedDirectories = excludedDirectories;
+        }
+
+        public Map<String, byte[]> invoke(File file, VirtualChannel channel) throws IOException {
+            Path root = file.toPath();
+            ManifestMatcher matcher = new ManifestMatcher(includes, excludedDirectories);
+            Map<String, byte[]> manifests = new HashMap<>();
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    return !dir.equals(root) && matcher.isExcludedDirectory(dir.getFileName().toString()) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) throws IOException {
+                    String relative = root.relativize(path).toString().replace(File.separatorChar, '/');
+                    if (attrs.isRegularFile() && matcher.isManifest(relative)) {
+                        manifests.put(relative, Files.readAllBytes(path));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path path, IOException ex) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            return manifests;
+        }
+    }
+}
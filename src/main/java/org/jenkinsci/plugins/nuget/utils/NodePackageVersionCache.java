@@ -0,0 +1,149 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latest version cache of the agent JVM, shared by every poll run on the agent whatever its executor.
+ * <p>
+ * Versions are first looked for here, then in the controller-wide cache, whose remote calls are saved
+ * when several jobs polling on the same agent reference the same packages. Entries looked up by the agent expire
+ * after the time to live of the controller cache, and entries read from the controller expire with the controller
+ * entry. The entries closest to expiry are evicted once the size limit is reached.
+ * <p>
+ * One instance is shared per JVM, see {@link #get()}.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public class NodePackageVersionCache implements PackageVersionCache {
+
+    private static final NodePackageVersionCache INSTANCE = new NodePackageVersionCache();
+
+    private final ConcurrentHashMap<PackageVersionKey, Entry> entries = new ConcurrentHashMap<>();
+    private volatile long ttlMillis;
+    private volatile int maxSize;
+
+    NodePackageVersionCache() {
+    }
+
+    public static NodePackageVersionCache get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Applies the cache settings of the controller, sent with each poll.
+     */
+    void configure(long ttl, TimeUnit unit, int maxSize) {
+        this.ttlMillis = unit.toMillis(Math.max(0, ttl));
+        this.maxSize = Math.max(0, maxSize);
+        if (!isEnabled()) {
+            entries.clear();
+        } else if (entries.size() > this.maxSize) {
+            evict();
+        }
+    }
+
+    @Override
+    public CachedPackageVersion getCached(PackageVersionKey key) {
+        Entry entry = isEnabled() ? entries.get(key) : null;
+        if (entry == null) {
+            return null;
+        }
+        long timeToLive = entry.expiresAt - now();
+        if (timeToLive <= 0) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return new CachedPackageVersion(entry.version, timeToLive);
+    }
+
+    @Override
+    public void put(PackageVersionKey key, String version) {
+        put(key, version, ttlMillis);
+    }
+
+    /**
+     * Stores a version for at most the given time, never longer than the time to live of this cache.
+     */
+    void put(PackageVersionKey key, String version, long timeToLive) {
+        if (version == null || !isEnabled() || timeToLive <= 0) {
+            return;
+        }
+        entries.put(key, new Entry(version, now() + Math.min(timeToLive, ttlMillis)));
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return a cache reading this cache first, then the given cache of the controller.
+     */
+    PackageVersionCache over(ReadOnlyPackageVersionCache controllerCache) {
+        return new PackageVersionCache() {
+            @Override
+            public CachedPackageVersion getCached(PackageVersionKey key) {
+                CachedPackageVersion cached = NodePackageVersionCache.this.getCached(key);
+                if (cached == null) {
+                    cached = controllerCache.getCached(key);
+                    if (cached != null) {
+                        NodePackageVersionCache.this.put(key, cached.getVersion(), cached.getTimeToLive());
+                    }
+                }
+                return cached;
+            }
+
+            @Override
+            public void put(PackageVersionKey key, String version) {
+                NodePackageVersionCache.this.put(key, version);
+            }
+        };
+    }
+
+    /**
+     * Removes the expired entries, then the entries expiring first, down to nine tenths of the size limit
+     * so that the next puts do not scan the cache again.
+     */
+    private synchronized void evict() {
+        int limit = maxSize;
+        if (entries.size() <= limit) {
+            return;
+        }
+        long now = now();
+        entries.values().removeIf(entry -> entry.expiresAt - now <= 0);
+        int target = limit - limit / 10;
+        if (entries.size() <= target) {
+            return;
+        }
+        List<Map.Entry<PackageVersionKey, Entry>> oldest = new ArrayList<>(entries.entrySet());
+        oldest.sort(Comparator.comparingLong(entry -> entry.getValue().expiresAt));
+        for (int idx = 0; idx < oldest.size() - target; idx++) {
+            entries.remove(oldest.get(idx).getKey(), oldest.get(idx).getValue());
+        }
+    }
+
+    private boolean isEnabled() {
+        return ttlMillis > 0 && maxSize > 0;
+    }
+
+    long now() {
+        return System.nanoTime() / 1000000L;
+    }
+
+    private static final class Entry {
+        private final String version;
+        private final long expiresAt;
+
+        private Entry(String version, long expiresAt) {
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Reads the ids of the packages changed in the catalog of a V3 feed since a cursor, the commit time of the last change read.
+ * <p>
+ * Only the catalog pages committed after the cursor are fetched, and their items are filtered by commit time,
+ * so the cost of a read depends on the number of changes, not on the size of the feed.
+ * Documents are streamed from the feed to a pull parser: they are never buffered nor turned into object trees.
+ *
+ * @author Arnaud TAMAILLON
+ */
+class NugetCatalogReader {
+
+    private final NugetFeedClient client;
+    private final char[] buffer = new char[8192];
+
+    NugetCatalogReader(NugetFeedClient client) {
+        this.client = client;
+    }
+
+    /**
+     * @param cursor the cursor of the previous read, null on the first read: only the cursor is read then.
+     * @return the changes since the cursor, or null if the feed has no catalog.
+     */
+    Changes readChanges(String feed, Instant cursor) throws IOException {
+        String catalog = client.getCatalogAddress(feed);
+        if (catalog == null) {
+            return null;
+        }
+        Changes changes = new Changes(cursor);
+        List<String> pages = readIndex(catalog, cursor, changes);
+        for (String page : pages) {
+            readPage(page, cursor, changes);
+        }
+        return changes;
+    }
+
+    /**
+     * @return the pages committed after the cursor.
+     */
+    private List<String> readIndex(String url, Instant cursor, Changes changes) throws IOException {
+        List<String> pages = new ArrayList<>();
+        try (Reader in = open(url)) {
+            JsonStreamReader reader = new JsonStreamReader(in, buffer);
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if ("commitTimeStamp".equals(name)) {
+                    changes.committed(parse(reader.nextScalar()));
+                } else if ("items".equals(name) && cursor != null) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        Item page = readItem(reader);
+                        if (page.id != null && page.commitTimeStamp != null && page.commitTimeStamp.isAfter(cursor)) {
+                            pages.add(page.id);
+                        }
+                    }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (ManifestParseException ex) {
+            throw new IOException("Invalid catalog index " + url, ex);
+        }
+        return pages;
+    }
+
+    private void readPage(String url, Instant cursor, Changes changes) throws IOException {
+        try (Reader in = open(url)) {
+            JsonStreamReader reader = new JsonStreamReader(in, buffer);
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("items".equals(reader.nextName())) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        Item item = readItem(reader);
+                        if (item.packageId != null && item.commitTimeStamp != null && item.commitTimeStamp.isAfter(cursor)) {
+                            changes.changed(item.packageId, item.commitTimeStamp);
+                        }
+                    }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (ManifestParseException ex) {
+            throw new IOException("Invalid catalog page " + url, ex);
+        }
+    }
+
+    private static Item readItem(JsonStreamReader reader) throws IOException, ManifestParseException {
+        Item item = new Item();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("@id".equals(name)) {
+                item.id = reader.nextScalar();
+            } else if ("nuget:id".equals(name)) {
+                item.packageId = reader.nextScalar();
+            } else if ("commitTimeStamp".equals(name)) {
+                item.commitTimeStamp = parse(reader.nextScalar());
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return item;
+    }
+
+    private Reader open(String url) throws IOException {
+        InputStream body = client.openStream(url);
+        if (body == null) {
+            throw new IOException("Catalog document not found: " + url);
+        }
+        return new InputStreamReader(body, StandardCharsets.UTF_8);
+    }
+
+    private static Instant parse(String timestamp) throws IOException {
+        if (timestamp == null) {
+            return null;
+        }
+        try {
+            return Instant.parse(timestamp.endsWith("Z") ? timestamp : timestamp + "Z");
+        } catch (DateTimeParseException ex) {
+            throw new IOException("Invalid catalog commit time " + timestamp, ex);
+        }
+    }
+
+    private static final class Item {
+        private String id;
+        private String packageId;
+        private Instant commitTimeStamp;
+    }
+
+    /**
+     * The package ids changed since a cursor, and the cursor to start the next read from.
+     */
+    static final class Changes {
+        private final Set<String> ids = new HashSet<>();
+        private Instant cursor;
+
+        private Changes(Instant cursor) {
+            this.cursor = cursor;
+        }
+
+        /**
+         * @return the lower case ids of the changed packages.
+         */
+        Set<String> getIds() {
+            return ids;
+        }
+
+        Instant getCursor() {
+            return cursor;
+        }
+
+        private void committed(Instant commitTimeStamp) {
+            if (commitTimeStamp != null && (cursor == null || commitTimeStamp.isAfter(cursor))) {
+                cursor = commitTimeStamp;
+            }
+        }
+
+        private void changed(String id, Instant commitTimeStamp) {
+            ids.add(id.toLowerCase(Locale.ENGLISH));
+            committed(commitTimeStamp);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import org.jenkinsci.plugins.nuget.triggers.NugetLookupMethod;
+import org.jenkinsci.plugins.nuget.triggers.NugetUpdatePolicy;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Options of a NuGet trigger poll, sent along with the check to the node owning the workspace.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public class NugetCheckOptions implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final boolean checkPrerelease;
+    private final NugetLookupMethod lookupMethod;
+    private Set<String> changedPaths;
+    private String manifestIncludes;
+    private String excludedDirectories;
+    private boolean reportAllUpdates;
+    private boolean collectOnly;
+    private NugetUpdatePolicy updatePolicy = NugetUpdatePolicy.MAJOR;
+
+    public NugetCheckOptions(boolean checkPrerelease, NugetLookupMethod lookupMethod) {
+        this.checkPrerelease = checkPrerelease;
+        this.lookupMethod = lookupMethod;
+    }
+
+    public boolean isCheckPrerelease() {
+        return checkPrerelease;
+    }
+
+    public NugetLookupMethod getLookupMethod() {
+        return lookupMethod;
+    }
+
+    /**
+     * @return the include patterns of the manifests to check, or null for the default ones.
+     */
+    public String getManifestIncludes() {
+        return manifestIncludes;
+    }
+
+    public void setManifestIncludes(String manifestIncludes) {
+        this.manifestIncludes = manifestIncludes;
+    }
+
+    /**
+     * @return the names of the directories that are not walked, or null for the default ones.
+     */
+    public String getExcludedDirectories() {
+        return excludedDirectories;
+    }
+
+    public void setExcludedDirectories(String excludedDirectories) {
+        this.excludedDirectories = excludedDirectories;
+    }
+
+    /**
+     * @return true if every package must be checked, instead of stopping at the first outdated one.
+     */
+    public boolean isReportAllUpdates() {
+        return reportAllUpdates;
+    }
+
+    public void setReportAllUpdates(boolean reportAllUpdates) {
+        this.reportAllUpdates = reportAllUpdates;
+    }
+
+    /**
+     * @return true if the referenced packages are only collected, their versions being looked up by the feed watch.
+     */
+    public boolean isCollectOnly() {
+        return collectOnly;
+    }
+
+    public void setCollectOnly(boolean collectOnly) {
+        this.collectOnly = collectOnly;
+    }
+
+    /**
+     * @return which newer versions are updates.
+     */
+    public NugetUpdatePolicy getUpdatePolicy() {
+        return updatePolicy;
+    }
+
+    public void setUpdatePolicy(NugetUpdatePolicy updatePolicy) {
+        this.updatePolicy = updatePolicy;
+    }
+
+    /**
+     * @return the workspace relative paths changed since the previous poll, or null if the workspace must be walked.
+     */
+    public Set<String> getChangedPaths() {
+        return changedPaths == null ? null : Collections.unmodifiableSet(changedPaths);
+    }
+
+    /**
+     * Skips the workspace walk: only the manifests already indexed and the given changed paths are checked.
+     * The workspace is still walked when it has not been indexed yet.
+     */
+    public void setChangedPaths(Collection<String> changedPaths) {
+        this.changedPaths = changedPaths == null ? null : new HashSet<>(changedPaths);
+    }
+}
@@ -0,0 +1,68 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a check of the workspace packages.
+ * <p>
+ * Unless every update is reported, the check stops at the first outdated package and only that one is listed.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public class NugetCheckResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final List<PackageUpdate> updates = new ArrayList<>();
+    private int checkedPackages;
+    private ArrayList<PackageDependency> dependencies;
+    private PollStatistics statistics;
+
+    public boolean isUpdated() {
+        return !updates.isEmpty();
+    }
+
+    public List<PackageUpdate> getUpdates() {
+        return Collections.unmodifiableList(updates);
+    }
+
+    /**
+     * @return the number of distinct packages whose latest version was retrieved.
+     */
+    public int getCheckedPackages() {
+        return checkedPackages;
+    }
+
+    /**
+     * @return the packages referenced by the workspace, null if the workspace was not checked.
+     */
+    List<PackageDependency> getDependencies() {
+        return dependencies;
+    }
+
+    void setDependencies(Collection<PackageDependency> dependencies) {
+        this.dependencies = new ArrayList<>(dependencies);
+    }
+
+    /**
+     * @return the measures of the check, null if the workspace was not checked.
+     */
+    public PollStatistics getStatistics() {
+        return statistics;
+    }
+
+    void setStatistics(PollStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    void addUpdate(PackageUpdate update) {
+        updates.add(update);
+    }
+
+    void packageChecked() {
+        checkedPackages++;
+    }
+}
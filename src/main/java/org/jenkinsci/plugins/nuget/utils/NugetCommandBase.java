@@ -6,9 +6,16 @@ import hudson.model.TaskListener;
 import hudson.util.ArgumentListBuilder;
 import org.jenkinsci.plugins.nuget.NugetGlobalConfiguration;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Runs NuGet.exe. Failed runs are retried up to {@link #retryCount} times, after an exponential backoff with jitter.
+ * Commands against a feed record their outcome in the {@link FeedCircuitBreaker}, and fail at once while the feed is unhealthy.
+ * Commands supporting it are sent to a {@link NugetHelperPool} helper process when one is configured.
+ *
  * @author Arnaud TAMAILLON
  */
 abstract class NugetCommandBase {
@@ -17,6 +24,10 @@ abstract class NugetCommandBase {
     static final String PRE_RELEASE = "-Prerelease";
 
     int retryCount = 1;
+    /**
+     * How long a single run may last, in seconds, before NuGet.exe is killed. 0 for no limit.
+     */
+    long timeout;
     protected TaskListener listener;
     protected NugetGlobalConfiguration configuration;
     private FilePath workDir;
@@ -29,24 +40,58 @@ abstract class NugetCommandBase {
     }
 
     public boolean execute() throws IOException {
-        Integer tryNumber = 1;
-        Boolean executed = false;
-
-        while (!executed && tryNumber <= retryCount) {
-            try {
+        String feed = getFeed();
+        FeedCircuitBreaker breaker = FeedCircuitBreaker.get();
+        if (feed != null && !breaker.allowRequest(feed)) {
+            logError(String.format("Skipped: %s failed repeatedly, it will be tried again after %tT.", feed, breaker.getRetryTime(feed)));
+            failed = true;
+            return false;
+        }
+        try {
+            for (int tryNumber = 1; ; tryNumber++) {
                 singleExecute();
-                executed = true;
-            } catch(InterruptedException ex) {
-                logError(ex.toString());
-                logInfo(String.format("Retrying: %d", tryNumber));
-                tryNumber++;
+                if (isSuccess()) {
+                    if (feed != null) {
+                        breaker.recordSuccess(feed);
+                    }
+                    return true;
+                }
+                if (tryNumber >= retryCount) {
+                    break;
+                }
+                long delay = FeedCircuitBreaker.getBackoffMillis(tryNumber);
+                logInfo(String.format("Retrying in %d ms: %d", delay, tryNumber));
+                Thread.sleep(delay);
             }
+        } catch (InterruptedException ex) {
+            if (feed != null) {
+                breaker.cancel(feed);
+            }
+            Thread.currentThread().interrupt();
+            logError(ex.toString());
+            failed = true;
+            return false;
+        }
+        if (feed != null) {
+            breaker.recordFailure(feed);
         }
-        return isSuccess();
+        return false;
+    }
+
+    /**
+     * @return the feed whose health this command is tracked in, or null if it is not tracked.
+     */
+    protected String getFeed() {
+        return null;
     }
 
     private void singleExecute() throws IOException, InterruptedException {
         failed = false;
+        String helper = configuration.getNugetHelper();
+        if (isHelperSupported() && !helper.isEmpty()) {
+            helperExecute(helper);
+            return;
+        }
         Launcher.LocalLauncher launcher = new Launcher.LocalLauncher(listener);
         ArgumentListBuilder builder = new ArgumentListBuilder(getNugetExe());
         enrichArguments(builder);
@@ -56,10 +101,38 @@ abstract class NugetCommandBase {
                 .cmds(builder)
                 .stdout(listener);
         starter = customize(starter);
-        int result = starter.join();
+        int result = timeout > 0 ? starter.joinWithTimeout(timeout, TimeUnit.SECONDS, listener) : starter.join();
+        HandleResult(result);
+    }
+
+    private void helperExecute(String helper) throws IOException, InterruptedException {
+        ArgumentListBuilder builder = new ArgumentListBuilder();
+        enrichArguments(builder);
+        int result;
+        try {
+            result = NugetHelperPool.get().execute(helper, configuration.getHelperRequests(), configuration.getLookupThreads(),
+                    new File(workDir.getRemote()), builder.toList(), createOutput(), listener.getLogger(), timeout);
+        } catch (IOException ex) {
+            logError(String.format("NuGet helper failed: %s", ex));
+            result = -1;
+        }
         HandleResult(result);
     }
 
+    /**
+     * @return true if the command can run in a NuGet helper process, where it is not customized by {@link #customize}.
+     */
+    protected boolean isHelperSupported() {
+        return false;
+    }
+
+    /**
+     * @return where the standard output of the command is written.
+     */
+    protected OutputStream createOutput() {
+        return listener.getLogger();
+    }
+
     protected void HandleResult(int result) throws IOException {
         failed = result != 0;
     }
@@ -0,0 +1,356 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import net.sf.json.JSONArray;
+import net.sf.json.JSONException;
+import net.sf.json.JSONObject;
+import org.apache.commons.io.IOUtils;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pure Java client for NuGet feeds, used instead of forking {@code NuGet.exe}.
+ * <p>
+ * V3 feeds are queried through their service index and flat container ({@code PackageBaseAddress}),
+ * other feeds are queried through the V2 OData {@code FindPackagesById()} function.
+ * Connections are left to the JDK keep-alive pool (responses are always fully read before being closed),
+ * and responses are revalidated with {@code If-None-Match} when the feed returned an {@code ETag}.
+ * <p>
+ * One instance is shared per JVM, see {@link #get()}.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public class NugetFeedClient {
+
+    static final String PACKAGE_BASE_ADDRESS = "PackageBaseAddress/3.0.0";
+    static final String PACKAGE_PUBLISH = "PackagePublish/2.0.0";
+    static final String CATALOG = "Catalog/3.0.0";
+    private static final int TIMEOUT = 30000;
+    private static final int MAX_CACHED_RESPONSES = 1000;
+    private static final String DATA_SERVICES_NAMESPACE = "http://schemas.microsoft.com/ado/2007/08/dataservices";
+
+    private static final NugetFeedClient INSTANCE = new NugetFeedClient();
+
+    private final Map<String, String> packageBaseAddresses = new ConcurrentHashMap<>();
+    private final Map<String, CachedResponse> responses = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+            return size() > MAX_CACHED_RESPONSES;
+        }
+    };
+
+    public static NugetFeedClient get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return the latest version of the package on the feed, or null if the feed does not know the package.
+     */
+    public String getLatestVersion(String feed, String id, boolean prerelease) throws IOException {
+        String baseAddress = getPackageBaseAddress(feed);
+        if (baseAddress.isEmpty()) {
+            return getLatestV2Version(feed, id, prerelease);
+        }
+        return getLatestV3Version(baseAddress, id, prerelease);
+    }
+
+    private String getLatestV3Version(String baseAddress, String id, boolean prerelease) throws IOException {
+        String lowerId = id.toLowerCase(Locale.ENGLISH);
+        String body = getString(baseAddress + encode(lowerId) + "/" + "index.json");
+        if (body == null) {
+            return null;
+        }
+        try {
+            JSONArray versions = JSONObject.fromObject(body).optJSONArray("versions");
+            if (versions == null) {
+                return null;
+            }
+            // versions are sorted in ascending order by the flat container, which lists unlisted versions too:
+            // unlike NuGet.exe list, the latest version may be an unlisted one
+            for (int idx = versions.size() - 1; idx >= 0; idx--) {
+                String version = versions.getString(idx);
+                if (prerelease || version.indexOf('-') < 0) {
+                    return version;
+                }
+            }
+            return null;
+        } catch (JSONException ex) {
+            throw new IOException("Invalid flat container response for package " + id, ex);
+        }
+    }
+
+    private String getLatestV2Version(String feed, String id, boolean prerelease) throws IOException {
+        String filter = prerelease ? "IsAbsoluteLatestVersion" : "IsLatestVersion";
+        String url = String.format("%s/FindPackagesById()?id='%s'&$filter=%s", stripSlash(feed), encode(id), filter);
+        byte[] body = getBytes(url);
+        if (body == null) {
+            return null;
+        }
+        List<String> versions = new ArrayList<>();
+        readODataVersions(body, id, versions);
+        return versions.isEmpty() ? null : versions.get(0);
+    }
+
+    /**
+     * @return every version of the package on the feed, none if the feed does not know the package.
+     */
+    public List<String> getVersions(String feed, String id) throws IOException {
+        List<String> versions = new ArrayList<>();
+        String baseAddress = getPackageBaseAddress(feed);
+        if (!baseAddress.isEmpty()) {
+            String body = getString(baseAddress + encode(id.toLowerCase(Locale.ENGLISH)) + "/" + "index.json");
+            if (body != null) {
+                try {
+                    JSONArray array = JSONObject.fromObject(body).optJSONArray("versions");
+                    for (int idx = 0; array != null && idx < array.size(); idx++) {
+                        versions.add(array.getString(idx));
+                    }
+                } catch (JSONException ex) {
+                    throw new IOException("Invalid flat container response for package " + id, ex);
+                }
+            }
+            return versions;
+        }
+        // OData feeds return the versions by pages, linked to each other
+        String url = String.format("%s/FindPackagesById()?id='%s'", stripSlash(feed), encode(id));
+        while (url != null) {
+            byte[] body = getBytes(url);
+            if (body == null) {
+                break;
+            }
+            url = readODataVersions(body, id, versions);
+        }
+        return versions;
+    }
+
+    /**
+     * Adds the versions of the entries of an OData response.
+     *
+     * @return the URL of the next page, or null if this is the last one.
+     */
+    private static String readODataVersions(byte[] body, String id, List<String> versions) throws IOException {
+        try {
+            XMLStreamReader reader = NugetXml.newInputFactory().createXMLStreamReader(new ByteArrayInputStream(body));
+            try {
+                String next = null;
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    if ("Version".equals(reader.getLocalName()) && DATA_SERVICES_NAMESPACE.equals(reader.getNamespaceURI())) {
+                        versions.add(reader.getElementText().trim());
+                    } else if ("link".equals(reader.getLocalName()) && "next".equals(reader.getAttributeValue(null, "rel"))) {
+                        next = reader.getAttributeValue(null, "href");
+                    }
+                }
+                return next;
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException ex) {
+            throw new IOException("Invalid OData response for package " + id, ex);
+        }
+    }
+
+    /**
+     * @return the flat container base address of a V3 feed, or an empty string for a V2 feed.
+     */
+    private String getPackageBaseAddress(String feed) throws IOException {
+        String address = packageBaseAddresses.get(feed);
+        if (address == null) {
+            address = readPackageBaseAddress(feed);
+            packageBaseAddresses.put(feed, address);
+        }
+        return address;
+    }
+
+    private String readPackageBaseAddress(String feed) throws IOException {
+        String body = getString(feed);
+        if (body == null) {
+            throw new IOException("NuGet feed not found: " + feed);
+        }
+        JSONObject index;
+        try {
+            index = JSONObject.fromObject(body);
+        } catch (JSONException ex) {
+            // not a V3 service index: an OData V2 feed
+            return "";
+        }
+        JSONArray resources = index.optJSONArray("resources");
+        if (resources == null) {
+            return "";
+        }
+        for (int idx = 0; idx < resources.size(); idx++) {
+            JSONObject resource = resources.optJSONObject(idx);
+            if (resource != null && PACKAGE_BASE_ADDRESS.equals(resource.optString("@type"))) {
+                String id = resource.optString("@id");
+                return id.endsWith("/") ? id : id + "/";
+            }
+        }
+        throw new IOException("No " + PACKAGE_BASE_ADDRESS + " resource in service index " + feed);
+    }
+
+    /**
+     * @param feed the URL of a V3 service index.
+     * @return the push endpoint of the feed.
+     */
+    public String getPublishAddress(String feed) throws IOException {
+        String body = getString(feed);
+        if (body == null) {
+            throw new IOException("NuGet feed not found: " + feed);
+        }
+        JSONArray resources;
+        try {
+            resources = JSONObject.fromObject(body).optJSONArray("resources");
+        } catch (JSONException ex) {
+            throw new IOException("Not a NuGet V3 service index: " + feed, ex);
+        }
+        for (int idx = 0; resources != null && idx < resources.size(); idx++) {
+            JSONObject resource = resources.optJSONObject(idx);
+            if (resource != null && PACKAGE_PUBLISH.equals(resource.optString("@type"))) {
+                return resource.optString("@id");
+            }
+        }
+        throw new IOException("No " + PACKAGE_PUBLISH + " resource in service index " + feed);
+    }
+
+    /**
+     * @return the catalog index of the feed, or null if the feed is not a V3 feed or has no catalog.
+     */
+    String getCatalogAddress(String feed) throws IOException {
+        if (getPackageBaseAddress(feed).isEmpty()) {
+            return null;
+        }
+        String body = getString(feed);
+        if (body == null) {
+            throw new IOException("NuGet feed not found: " + feed);
+        }
+        JSONArray resources;
+        try {
+            resources = JSONObject.fromObject(body).optJSONArray("resources");
+        } catch (JSONException ex) {
+            throw new IOException("Not a NuGet V3 service index: " + feed, ex);
+        }
+        for (int idx = 0; resources != null && idx < resources.size(); idx++) {
+            JSONObject resource = resources.optJSONObject(idx);
+            if (resource != null && CATALOG.equals(resource.optString("@type"))) {
+                return resource.optString("@id");
+            }
+        }
+        return null;
+    }
+
+    private String getString(String url) throws IOException {
+        byte[] body = getBytes(url);
+        return body == null ? null : new String(body, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the response body, or null when the resource does not exist.
+     */
+    byte[] getBytes(String url) throws IOException {
+        CachedResponse cached;
+        synchronized (responses) {
+            cached = responses.get(url);
+        }
+        HttpURLConnection connection = openConnection(url);
+        if (cached != null) {
+            connection.setRequestProperty("If-None-Match", cached.etag);
+        }
+        int status = connection.getResponseCode();
+        if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+            drain(connection.getInputStream());
+            return cached.body;
+        }
+        if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+            drain(connection.getErrorStream());
+            return null;
+        }
+        if (status != HttpURLConnection.HTTP_OK) {
+            drain(connection.getErrorStream());
+            throw new IOException(String.format("HTTP %d returned by %s", status, url));
+        }
+        byte[] body;
+        try (InputStream stream = connection.getInputStream()) {
+            body = IOUtils.toByteArray(stream);
+        }
+        String etag = connection.getHeaderField("ETag");
+        if (etag != null) {
+            synchronized (responses) {
+                responses.put(url, new CachedResponse(etag, body));
+            }
+        }
+        return body;
+    }
+
+    /**
+     * Opens the response body without buffering it, for large documents read once such as catalog pages:
+     * they are neither revalidated nor kept in the response cache.
+     *
+     * @return the response body, or null when the resource does not exist.
+     */
+    InputStream openStream(String url) throws IOException {
+        HttpURLConnection connection = openConnection(url);
+        int status = connection.getResponseCode();
+        if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+            drain(connection.getErrorStream());
+            return null;
+        }
+        if (status != HttpURLConnection.HTTP_OK) {
+            drain(connection.getErrorStream());
+            throw new IOException(String.format("HTTP %d returned by %s", status, url));
+        }
+        return connection.getInputStream();
+    }
+
+    private static HttpURLConnection openConnection(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(TIMEOUT);
+        connection.setReadTimeout(TIMEOUT);
+        connection.setRequestProperty("Accept", "application/json, application/atom+xml, application/xml");
+        return connection;
+    }
+
+    private static void drain(InputStream stream) throws IOException {
+        if (stream != null) {
+            try {
+                IOUtils.toByteArray(stream);
+            } finally {
+                stream.close();
+            }
+        }
+    }
+
+    private static String encode(String value) throws IOException {
+        return URLEncoder.encode(value, "UTF-8");
+    }
+
+    private static String stripSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    private static final class CachedResponse {
+        private final String etag;
+        private final byte[] body;
+
+        private CachedResponse(String etag, byte[] body) {
+            this.etag = etag;
+            this.body = body;
+        }
+    }
+}
@@ -12,14 +12,21 @@ import java.io.OutputStream;
 import java.util.List;
 
 /**
+ * Looks up the latest version of a package with {@code NuGet.exe list packageid:<id>}, which only lists the package itself
+ * instead of every package whose id contains the search term. The query is restricted to the package sources
+ * of the global configuration, if any.
+ * <p>
+ * Sources that do not support the {@code packageid:} syntax list nothing, the plain search term is tried then.
+ *
  * @author Arnaud TAMAILLON
  */
-class NugetGetLatestPackageVersionCommand extends NugetCommandBase {
+class NugetGetLatestPackageVersionCommand extends NugetCommandBase implements LatestPackageVersionCommand {
 
-    private ForkingOutputStream fork;
+    private PackageVersionOutputStream fork;
     private final String packageName;
     private final boolean checkPrerelease;
     private final TriggerLog log;
+    private boolean exactMatch = true;
     private String version;
 
     NugetGetLatestPackageVersionCommand(TriggerLog log, NugetGlobalConfiguration configuration, FilePath workDir, String packageName, boolean checkPrerelease) {
@@ -28,38 +35,72 @@ class NugetGetLatestPackageVersionCommand extends NugetCommandBase {
         this.packageName = packageName;
         this.checkPrerelease = checkPrerelease;
         this.retryCount = 3;
+        this.timeout = configuration.getLookupTimeout();
+    }
+
+    /**
+     * @return the key of the package sources queried by NuGet.exe lookups.
+     */
+    static String getSourcesKey(NugetGlobalConfiguration configuration) {
+        List<String> sources = configuration.getConfiguredPackageSourceList();
+        return sources.isEmpty() ? PackageVersionKey.DEFAULT_FEED : String.join(" ", sources);
+    }
+
+    @Override
+    protected String getFeed() {
+        return getSourcesKey(configuration);
     }
 
     @Override
     protected void enrichArguments(ArgumentListBuilder builder) {
         builder.add("list");
-        builder.add(packageName);
+        builder.add(exactMatch ? "packageid:" + packageName : packageName);
+        for (String source : configuration.getConfiguredPackageSourceList()) {
+            builder.add("-Source");
+            builder.add(source);
+        }
         if (checkPrerelease) {
             builder.add(PRE_RELEASE);
         }
         builder.add(NON_INTERACTIVE);
     }
 
+    @Override
+    public boolean execute() throws IOException {
+        exactMatch = true;
+        boolean success = super.execute();
+        if (success && version == null) {
+            log.info(String.format("No exact match for package %s, searching it.", packageName));
+            exactMatch = false;
+            success = super.execute();
+        }
+        return success;
+    }
+
+    @Override
+    protected boolean isHelperSupported() {
+        return true;
+    }
+
+    @Override
+    protected OutputStream createOutput() {
+        fork = new PackageVersionOutputStream(listener.getLogger(), packageName);
+        return fork;
+    }
+
     @Override
     protected Launcher.ProcStarter customize(Launcher.ProcStarter starter) {
-        OutputStream stream = listener.getLogger();
-        fork = new ForkingOutputStream(stream);
-        return starter.stdout(fork).stderr(stream);
+        return starter.stdout(createOutput()).stderr(listener.getLogger());
     }
 
     @Override
     protected void HandleResult(int result) throws IOException {
         super.HandleResult(result);
-        List<String> out = fork.getLines();
-        for (String line : out) {
-            String[] parts = line.split(" ", 2);
-            if (parts.length == 2 && parts[0].equalsIgnoreCase(packageName)) {
-                version = parts[1];
-            }
-        }
         fork.close();
+        version = fork.getVersion();
     }
 
+    @Override
     public String getVersion() {
         return version;
     }
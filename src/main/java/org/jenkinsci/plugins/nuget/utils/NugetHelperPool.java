@@ -0,0 +1,212 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import hudson.Util;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs NuGet commands in long-lived helper processes, so that mono and NuGet are started and compiled once
+ * instead of once per lookup.
+ * <p>
+ * A helper is started with the configured command line, then reads requests on its standard input and answers
+ * each of them on its standard output, one at a time. All integers are 4-byte big-endian, all strings are
+ * a length followed by that many UTF-8 bytes:
+ * <ul>
+ *     <li>a request is the number of strings that follow, the working directory, then the NuGet arguments;</li>
+ *     <li>a response is a sequence of frames, each one a type byte then a length and that many bytes:
+ *     {@code 'O'} for standard output, {@code 'E'} for standard error, and a last {@code 'X'} frame of length 4
+ *     holding the exit code of the command.</li>
+ * </ul>
+ * Idle helpers are kept for the next commands, up to the number of concurrent lookups. A helper is stopped after
+ * serving its maximum number of requests, and whenever a request fails, times out or breaks the framing.
+ * <p>
+ * One instance is shared per JVM, see {@link #get()}: helpers are shared by all the polls run on an agent.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public class NugetHelperPool {
+
+    static final byte STDOUT = 'O';
+    static final byte STDERR = 'E';
+    static final byte EXIT = 'X';
+    private static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+    private static final NugetHelperPool INSTANCE = new NugetHelperPool();
+    private static final ScheduledExecutorService WATCHDOG = new ScheduledThreadPoolExecutor(1, new NamingThreadFactory(new DaemonThreadFactory(), "NuGet helper watchdog"));
+
+    private final Map<String, Deque<Helper>> idleHelpers = new ConcurrentHashMap<>();
+
+    NugetHelperPool() {
+    }
+
+    public static NugetHelperPool get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Runs a command in an idle helper, or in a new one when all of them are busy.
+     *
+     * @param helperCommand the command line starting a helper.
+     * @param maxRequests the number of requests a helper serves before being replaced.
+     * @param maxIdle the number of idle helpers kept for this command line.
+     * @param timeout how long the command may run, in seconds, before its helper is killed. 0 for no limit.
+     * @return the exit code of the command.
+     * @throws IOException if the helper cannot be started or failed to answer, it is stopped then.
+     */
+    int execute(String helperCommand, int maxRequests, int maxIdle, File workDir, List<String> arguments,
+                OutputStream stdout, OutputStream stderr, long timeout) throws IOException, InterruptedException {
+        Helper idle = borrow(helperCommand);
+        Helper helper = idle != null ? idle : new Helper(Util.tokenize(helperCommand));
+        boolean healthy = false;
+        ScheduledFuture<?> watchdog = timeout > 0 ? WATCHDOG.schedule(helper::destroy, timeout, TimeUnit.SECONDS) : null;
+        try {
+            int exitCode = helper.execute(workDir, arguments, stdout, stderr);
+            healthy = true;
+            return exitCode;
+        } catch (IOException ex) {
+            if (helper.destroyed) {
+                throw new IOException(String.format("NuGet helper killed after %d seconds", timeout), ex);
+            }
+            throw ex;
+        } finally {
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+            if (Thread.interrupted()) {
+                healthy = false;
+                Thread.currentThread().interrupt();
+            }
+            if (!healthy || helper.destroyed || helper.requestCount >= maxRequests || !giveBack(helperCommand, helper, maxIdle)) {
+                helper.destroy();
+            }
+        }
+    }
+
+    /**
+     * Stops the idle helpers.
+     */
+    public void shutdown() {
+        for (Deque<Helper> helpers : idleHelpers.values()) {
+            synchronized (helpers) {
+                for (Helper helper : helpers) {
+                    helper.destroy();
+                }
+                helpers.clear();
+            }
+        }
+    }
+
+    int getIdleCount(String helperCommand) {
+        Deque<Helper> helpers = idleHelpers.get(helperCommand);
+        if (helpers == null) {
+            return 0;
+        }
+        synchronized (helpers) {
+            return helpers.size();
+        }
+    }
+
+    private Helper borrow(String helperCommand) {
+        Deque<Helper> helpers = idleHelpers.computeIfAbsent(helperCommand, key -> new ArrayDeque<>());
+        synchronized (helpers) {
+            for (Helper helper = helpers.pollFirst(); helper != null; helper = helpers.pollFirst()) {
+                if (helper.process.isAlive()) {
+                    return helper;
+                }
+                helper.destroy();
+            }
+            return null;
+        }
+    }
+
+    private boolean giveBack(String helperCommand, Helper helper, int maxIdle) {
+        Deque<Helper> helpers = idleHelpers.computeIfAbsent(helperCommand, key -> new ArrayDeque<>());
+        synchronized (helpers) {
+            if (helpers.size() >= maxIdle) {
+                return false;
+            }
+            // the most recently used helper is reused first, so that the others can be recycled
+            helpers.addFirst(helper);
+            return true;
+        }
+    }
+
+    private static final class Helper {
+        private final Process process;
+        private final DataOutputStream requests;
+        private final DataInputStream responses;
+        private int requestCount;
+        private volatile boolean destroyed;
+
+        private Helper(String[] command) throws IOException {
+            process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            requests = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+            responses = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        }
+
+        private int execute(File workDir, List<String> arguments, OutputStream stdout, OutputStream stderr) throws IOException {
+            requestCount++;
+            requests.writeInt(arguments.size() + 1);
+            writeString(workDir.getAbsolutePath());
+            for (String argument : arguments) {
+                writeString(argument);
+            }
+            requests.flush();
+            byte[] buffer = new byte[8192];
+            while (true) {
+                byte type = responses.readByte();
+                int length = responses.readInt();
+                if (length < 0 || length > MAX_FRAME_LENGTH) {
+                    throw new IOException("Invalid NuGet helper frame length: " + length);
+                }
+                if (type == EXIT) {
+                    if (length != 4) {
+                        throw new IOException("Invalid NuGet helper exit frame length: " + length);
+                    }
+                    return responses.readInt();
+                }
+                if (type != STDOUT && type != STDERR) {
+                    throw new IOException("Invalid NuGet helper frame type: " + type);
+                }
+                OutputStream target = type == STDOUT ? stdout : stderr;
+                while (length > 0) {
+                    int read = responses.read(buffer, 0, Math.min(length, buffer.length));
+                    if (read < 0) {
+                        throw new IOException("NuGet helper output truncated");
+                    }
+                    target.write(buffer, 0, read);
+                    length -= read;
+                }
+            }
+        }
+
+        private void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            requests.writeInt(bytes.length);
+            requests.write(bytes);
+        }
+
+        private void destroy() {
+            destroyed = true;
+            process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import org.jenkinsci.plugins.nuget.triggers.logs.TriggerLog;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Retrieves the latest version of a package over HTTP, without starting NuGet.exe.
+ * Feeds are queried in order, the first one knowing the package wins.
+ * <p>
+ * Failed queries are retried after an exponential backoff with jitter. Feeds the {@link FeedCircuitBreaker}
+ * reports as unhealthy are skipped, and the lookup fails unless another feed knows the package.
+ *
+ * @author Arnaud TAMAILLON
+ */
+class NugetHttpGetLatestPackageVersionCommand implements LatestPackageVersionCommand {
+
+    static final int MAX_ATTEMPTS = 3;
+
+    private final TriggerLog log;
+    private final List<String> feeds;
+    private final String packageName;
+    private final boolean checkPrerelease;
+    private final FeedThrottle throttle;
+    private final NugetFeedClient client;
+    private final FeedCircuitBreaker breaker;
+    private PollStatistics statistics = new PollStatistics();
+    private String version;
+
+    NugetHttpGetLatestPackageVersionCommand(TriggerLog log, List<String> feeds, String packageName, boolean checkPrerelease, FeedThrottle throttle) {
+        this(log, feeds, packageName, checkPrerelease, throttle, NugetFeedClient.get(), FeedCircuitBreaker.get());
+    }
+
+    NugetHttpGetLatestPackageVersionCommand(TriggerLog log, List<String> feeds, String packageName, boolean checkPrerelease, FeedThrottle throttle, NugetFeedClient client, FeedCircuitBreaker breaker) {
+        this.log = log;
+        this.feeds = feeds;
+        this.packageName = packageName;
+        this.checkPrerelease = checkPrerelease;
+        this.throttle = throttle;
+        this.client = client;
+        this.breaker = breaker;
+    }
+
+    void setStatistics(PollStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public boolean execute() {
+        boolean success = true;
+        version = null;
+        for (String feed : feeds) {
+            if (!breaker.allowRequest(feed)) {
+                log.error(String.format("Skipped %s for %s: it failed repeatedly, it will be tried again after %tT.", feed, packageName, breaker.getRetryTime(feed)));
+                success = false;
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                version = getLatestVersion(feed);
+                breaker.recordSuccess(feed);
+                statistics.lookedUp(feed, System.nanoTime() - start, true);
+                if (version != null) {
+                    return true;
+                }
+            } catch (IOException ex) {
+                breaker.recordFailure(feed);
+                statistics.lookedUp(feed, System.nanoTime() - start, false);
+                log.error(String.format("Failed to retrieve latest version of %s from %s: %s", packageName, feed, ex));
+                success = false;
+            } catch (InterruptedException ex) {
+                breaker.cancel(feed);
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return success;
+    }
+
+    private String getLatestVersion(String feed) throws IOException, InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            throttle.acquire(feed);
+            try {
+                return client.getLatestVersion(feed, packageName, checkPrerelease);
+            } catch (IOException ex) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw ex;
+                }
+                log.info(String.format("Retrying %s on %s after: %s", packageName, feed, ex));
+            } finally {
+                throttle.release(feed);
+            }
+            Thread.sleep(FeedCircuitBreaker.getBackoffMillis(attempt));
+        }
+    }
+
+    @Override
+    public String getVersion() {
+        return version;
+    }
+}
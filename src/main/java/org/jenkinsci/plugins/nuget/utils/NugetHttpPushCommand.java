@@ -0,0 +1,163 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import hudson.model.TaskListener;
+import org.apache.commons.io.IOUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Pushes a package with the NuGet V2 push protocol: a multipart {@code PUT} on the push endpoint of the feed,
+ * authenticated by the {@code X-NuGet-ApiKey} header. This is what {@code NuGet.exe push} does, without forking it.
+ * <p>
+ * The package is copied from its file through a buffer with a fixed length request body, it is never held in memory.
+ * V3 feeds, given by their service index, are pushed to their {@code PackagePublish} resource;
+ * other feeds to {@code api/v2/package} under their URL.
+ * <p>
+ * As with {@code NuGet.exe push -SkipDuplicate}, a package the feed already has can be reported as skipped instead of failed.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public class NugetHttpPushCommand {
+
+    static final String PUSH_PATH = "api/v2/package";
+    private static final int CONNECT_TIMEOUT = 30000;
+    private static final int READ_TIMEOUT = 600000;
+    private static final int MAX_ERROR_LENGTH = 2048;
+
+    private final TaskListener listener;
+    private final File packageFile;
+    private final String source;
+    private final String apiKey;
+    private boolean skipDuplicate;
+    private boolean duplicate;
+
+    public NugetHttpPushCommand(TaskListener listener, File packageFile, String source, String apiKey) {
+        this.listener = listener;
+        this.packageFile = packageFile;
+        this.source = source;
+        this.apiKey = apiKey;
+    }
+
+    public void setSkipDuplicate(boolean skipDuplicate) {
+        this.skipDuplicate = skipDuplicate;
+    }
+
+    /**
+     * @return true if the last push was skipped because the feed already has the package.
+     */
+    public boolean isDuplicate() {
+        return duplicate;
+    }
+
+    public boolean execute() throws IOException {
+        duplicate = false;
+        String url = getPushUrl();
+        listener.getLogger().println(String.format("Pushing %s to %s", packageFile.getName(), url));
+        int status = put(url);
+        switch (status) {
+            case HttpURLConnection.HTTP_OK:
+            case HttpURLConnection.HTTP_CREATED:
+            case HttpURLConnection.HTTP_ACCEPTED:
+                listener.getLogger().println(String.format("Package %s pushed.", packageFile.getName()));
+                return true;
+            case HttpURLConnection.HTTP_CONFLICT:
+                if (skipDuplicate) {
+                    listener.getLogger().println(String.format("Package %s already exists on %s, skipped.", packageFile.getName(), url));
+                    duplicate = true;
+                    return true;
+                }
+                listener.error(String.format("Package %s already exists on %s.", packageFile.getName(), url));
+                return false;
+            default:
+                if (status < HttpURLConnection.HTTP_MULT_CHOICE) {
+                    listener.error(String.format("Unexpected HTTP %d returned by %s.", status, url));
+                }
+                return false;
+        }
+    }
+
+    String getPushUrl() throws IOException {
+        if (source.endsWith(".json")) {
+            return NugetFeedClient.get().getPublishAddress(source);
+        }
+        if (source.endsWith(PUSH_PATH) || source.endsWith(PUSH_PATH + "/")) {
+            return source;
+        }
+        return (source.endsWith("/") ? source : source + "/") + PUSH_PATH;
+    }
+
+    private int put(String url) throws IOException {
+        String boundary = UUID.randomUUID().toString();
+        byte[] head = ("--" + boundary + "\r\n"
+                + "Content-Type: application/octet-stream\r\n"
+                + "Content-Disposition: form-data; name=\"package\"; filename=\"package.nupkg\"\r\n"
+                + "\r\n").getBytes(StandardCharsets.US_ASCII);
+        byte[] tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+
+        try (InputStream in = new FileInputStream(packageFile)) {
+            long size = packageFile.length();
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(CONNECT_TIMEOUT);
+            connection.setReadTimeout(READ_TIMEOUT);
+            connection.setRequestMethod("PUT");
+            // a streamed body cannot be sent again to the redirect target
+            connection.setInstanceFollowRedirects(false);
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(head.length + size + tail.length);
+            connection.setRequestProperty("Content-Type", "multipart/form-data; boundary=" + boundary);
+            connection.setRequestProperty("X-NuGet-Protocol-Version", "4.1.0");
+            if (apiKey != null && !apiKey.isEmpty()) {
+                connection.setRequestProperty("X-NuGet-ApiKey", apiKey);
+            }
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(head);
+                IOUtils.copyLarge(in, out);
+                out.write(tail);
+            }
+            int status = connection.getResponseCode();
+            if (status >= HttpURLConnection.HTTP_BAD_REQUEST) {
+                logError(connection, status, url);
+            } else if (status >= HttpURLConnection.HTTP_MULT_CHOICE) {
+                listener.error(String.format("HTTP %d returned by %s, redirecting to %s: the push URL must be the final endpoint.",
+                        status, url, connection.getHeaderField("Location")));
+                drain(connection.getErrorStream());
+            } else {
+                drain(connection.getInputStream());
+            }
+            return status;
+        }
+    }
+
+    private void logError(HttpURLConnection connection, int status, String url) throws IOException {
+        String message = connection.getResponseMessage();
+        try (InputStream stream = connection.getErrorStream()) {
+            if (stream != null) {
+                byte[] body = IOUtils.toByteArray(stream);
+                if (body.length > 0) {
+                    message = new String(body, 0, Math.min(body.length, MAX_ERROR_LENGTH), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        if (status != HttpURLConnection.HTTP_CONFLICT) {
+            listener.error(String.format("HTTP %d returned by %s: %s", status, url, message));
+        }
+    }
+
+    private static void drain(InputStream stream) throws IOException {
+        if (stream != null) {
+            try {
+                IOUtils.toByteArray(stream);
+            } finally {
+                stream.close();
+            }
+        }
+    }
+}
@@ -1,50 +1,61 @@
 package org.jenkinsci.plugins.nuget.utils;
 
-import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.Maps;
-import hudson.FilePath;
-import org.jenkinsci.plugins.nuget.NugetGlobalConfiguration;
 import org.jenkinsci.plugins.nuget.triggers.logs.TriggerLog;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
 import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 /**
+ * Collects the distinct packages referenced by the dependency manifests of a workspace,
+ * without descending into excluded directories. Each manifest is read by the first {@link ManifestParser} accepting it.
+ * Their versions are resolved afterwards, in a single batch.
+ * <p>
+ * Manifests left unchanged since the previous poll are not parsed again, their packages are taken from the {@link ManifestIndex}.
+ *
  * @author Arnaud TAMAILLON
  */
 class NugetPackageCheckerVisitor extends SimpleFileVisitor<Path> {
 
-    private final Map<String, String> latestPackageVersions = Maps.newHashMap();
+    private final Map<String, PackageDependency> dependencies = new LinkedHashMap<>();
+    private final Set<String> visitedManifests = new HashSet<>();
     private final TriggerLog log;
-    private final boolean preReleaseChecked;
-    private final FilePath workspaceRoot;
-    private final DocumentBuilder builder;
-    private final NugetGlobalConfiguration configuration;
-    private boolean updated;
+    private final Path root;
+    private final ManifestIndex index;
+    private final ManifestMatcher matcher;
+    private final ManifestParsers parsers;
+    private PollStatistics statistics = new PollStatistics();
 
-    boolean isUpdated() {
-        return updated;
+    NugetPackageCheckerVisitor(TriggerLog log, Path root, ManifestIndex index, ManifestMatcher matcher, ManifestParsers parsers) {
+        this.log = log;
+        this.root = root;
+        this.index = index;
+        this.matcher = matcher;
+        this.parsers = parsers;
     }
 
-    NugetPackageCheckerVisitor(TriggerLog log, NugetGlobalConfiguration configuration, boolean preReleaseChecked, FilePath workspaceRoot) throws ParserConfigurationException {
-        this.log = log;
-        this.configuration = configuration;
-        this.preReleaseChecked = preReleaseChecked;
-        this.workspaceRoot = workspaceRoot;
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
-        builder = factory.newDocumentBuilder();
+    void setStatistics(PollStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+        Path fileName = dir.getFileName();
+        if (!dir.equals(root) && fileName != null && matcher.isExcludedDirectory(fileName.toString())) {
+            log.skippedExcludedDirectory(dir);
+            return FileVisitResult.SKIP_SUBTREE;
+        }
+        return FileVisitResult.CONTINUE;
     }
 
     @Override
@@ -54,37 +65,58 @@ class NugetPackageCheckerVisitor extends SimpleFileVisitor<Path> {
             log.skippingFileWithNoFileName();
             return FileVisitResult.CONTINUE;
         }
-        if (!fileName.toString().equalsIgnoreCase("packages.config")) {
-            log.skippedFileNotPackagesConfig(file);
+        String path = relativize(file);
+        ManifestParser parser = matcher.isManifest(path) ? parsers.find(fileName.toString()) : null;
+        if (parser == null) {
+            log.skippedFileNotManifest(file);
             return FileVisitResult.CONTINUE;
         }
         log.checkingPackageFile(file);
-        return checkPackageFile(file);
+        checkPackageFile(file, path, parser, attributes != null ? attributes : Files.readAttributes(file, BasicFileAttributes.class));
+        return FileVisitResult.CONTINUE;
     }
 
-    private FileVisitResult checkPackageFile(Path file) throws IOException {
-        try {
-            Document doc = builder.parse(file.toFile());
+    private void checkPackageFile(Path file, String path, ManifestParser parser, BasicFileAttributes attributes) throws IOException {
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+        List<PackageReference> packages = index.getUnchangedPackages(path, file, lastModified, size);
+        if (packages == null) {
+            packages = parse(file, parser);
+            if (packages == null) {
+                return;
+            }
+            index.put(path, file, lastModified, size, packages);
+        }
+        visitedManifests.add(path);
+        for (PackageReference reference : packages) {
+            addDependency(reference.getId(), reference.getVersion(), path);
+        }
+    }
 
-            doc.getDocumentElement().normalize();
-            NodeList packageNodes = doc.getElementsByTagName("package");
-            for (int idx = 0; idx < packageNodes.getLength(); idx++) {
-                Element p = (Element) packageNodes.item(idx);
-                String id = p.getAttribute("id");
-                String version = p.getAttribute("version");
-                String latest = getPackageVersion(workspaceRoot, id);
-                log.packageVersionRetrieved(id, latest);
+    private List<PackageReference> parse(Path file, ManifestParser parser) throws IOException {
+        long start = System.nanoTime();
+        try {
+            return parser.parse(file);
+        } catch (ManifestParseException ex) {
+            log.errorWhileParsingManifest(file, ex);
+            return null;
+        } finally {
+            statistics.parsed(System.nanoTime() - start);
+        }
+    }
 
-                if (latest == null || !version.equals(latest)) {
-                    log.packageHasBeenUpdated(id, version, latest);
-                    updated = true;
-                    return FileVisitResult.TERMINATE;
-                }
-            }
-        } catch (SAXException ex) {
-            log.errorWhileParsingPackageConfigFile(ex);
+    private void addDependency(String id, String version, String manifest) {
+        String key = id.toLowerCase(Locale.ENGLISH);
+        PackageDependency dependency = dependencies.get(key);
+        if (dependency == null) {
+            dependency = new PackageDependency(id);
+            dependencies.put(key, dependency);
         }
-        return FileVisitResult.CONTINUE;
+        dependency.addVersion(version, manifest);
+    }
+
+    private String relativize(Path file) {
+        return root.relativize(file).toString().replace('\\', '/');
     }
 
     @Override
@@ -93,18 +125,14 @@ class NugetPackageCheckerVisitor extends SimpleFileVisitor<Path> {
         return FileVisitResult.CONTINUE;
     }
 
-    private String getPackageVersion(FilePath workspaceRoot, String packageName) throws IOException {
-        if (latestPackageVersions.containsKey(packageName)) {
-            log.reusingCachedPackageVersion(packageName);
-            return latestPackageVersions.get(packageName);
-        }
-        NugetGetLatestPackageVersionCommand command = new NugetGetLatestPackageVersionCommand(log, configuration, workspaceRoot, packageName, preReleaseChecked);
-        command.execute();
-        return command.getVersion();
+    Collection<PackageDependency> getDependencies() {
+        return dependencies.values();
     }
 
-    @VisibleForTesting
-    public Map<String, String> getLatestPackageVersions() {
-        return latestPackageVersions;
+    /**
+     * @return the workspace relative paths of the manifests checked, whether parsed or taken from the index.
+     */
+    Set<String> getVisitedManifests() {
+        return visitedManifests;
     }
 }
@@ -3,40 +3,142 @@ package org.jenkinsci.plugins.nuget.utils;
 import hudson.FilePath;
 import hudson.remoting.VirtualChannel;
 import jenkins.MasterToSlaveFileCallable;
-import org.jenkinsci.lib.xtrigger.XTriggerLog;
 import org.jenkinsci.plugins.nuget.NugetGlobalConfiguration;
-import org.jenkinsci.plugins.nuget.triggers.NugetTrigger;
 import org.jenkinsci.plugins.nuget.triggers.logs.TriggerLog;
 
-import javax.xml.parsers.ParserConfigurationException;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * Checks the packages of a workspace in two phases: the workspace is walked to collect
+ * the distinct referenced packages, then all of them are resolved concurrently.
+ * Resolution stops at the first outdated package, unless every update must be reported.
+ * The referenced packages are always returned, for the package index of the controller.
+ * Nothing is resolved when the packages are only collected for the feed watch.
+ *
  * @author Arnaud TAMAILLON
  */
-class NugetPackagesCheckerCallable extends MasterToSlaveFileCallable<Boolean> {
-    private final boolean preReleaseChecked;
+class NugetPackagesCheckerCallable extends MasterToSlaveFileCallable<NugetCheckResult> {
+    private final NugetCheckOptions options;
     private final TriggerLog log;
     private final NugetGlobalConfiguration configuration;
+    private final ReadOnlyPackageVersionCache versionCache;
 
-    NugetPackagesCheckerCallable(NugetGlobalConfiguration configuration, boolean preReleaseChecked, TriggerLog log) {
+    NugetPackagesCheckerCallable(NugetGlobalConfiguration configuration, NugetCheckOptions options, TriggerLog log, ReadOnlyPackageVersionCache versionCache) {
         this.configuration = configuration;
-        this.preReleaseChecked = preReleaseChecked;
+        this.options = options;
         this.log = log;
+        this.versionCache = versionCache;
     }
 
-    public Boolean invoke(File file, VirtualChannel vc) throws IOException, InterruptedException {
+    public NugetCheckResult invoke(File file, VirtualChannel vc) throws IOException, InterruptedException {
         try {
-            FilePath filePath = new FilePath(file);
-            NugetPackageCheckerVisitor visitor = new NugetPackageCheckerVisitor(log, configuration, preReleaseChecked, filePath);
-            Files.walkFileTree(Paths.get(file.getPath()), visitor);
-            return visitor.isUpdated();
-        } catch (ParserConfigurationException ex) {
-            log.error(ex.toString());
+            return check(file);
+        } finally {
+            // on an agent, the buffered lines must reach the controller before the result
+            log.flush();
+        }
+    }
+
+    private NugetCheckResult check(File file) throws IOException, InterruptedException {
+        PollStatistics statistics = new PollStatistics();
+        long start = System.nanoTime();
+        NugetPackageCheckerVisitor visitor = collectDependencies(file, statistics);
+        statistics.walked(System.nanoTime() - start);
+
+        NugetCheckResult result = new NugetCheckResult();
+        result.setStatistics(statistics);
+        result.setDependencies(visitor.getDependencies());
+        if (options.isCollectOnly()) {
+            return result;
+        }
+        PackageVersionResolver resolver = new PackageVersionResolver(log, configuration, options.isCheckPrerelease(), new FilePath(file), getVersionCache(), options.getLookupMethod());
+        resolver.setStatistics(statistics);
+        resolver.resolve(visitor.getDependencies(), (dependency, latest) -> {
+            log.packageVersionRetrieved(dependency.getId(), latest);
+            result.packageChecked();
+            for (String version : dependency.getVersions()) {
+                if (latest == null || options.getUpdatePolicy().isUpdate(version, latest)) {
+                    log.packageHasBeenUpdated(dependency.getId(), version, latest);
+                    result.addUpdate(new PackageUpdate(dependency.getId(), version, latest, dependency.getManifests(version)));
+                    if (!options.isReportAllUpdates()) {
+                        return true;
+                    }
+                }
+            }
             return false;
+        });
+        return result;
+    }
+
+    /**
+     * On agents, the controller-wide cache is only reached through the remote calls of its read-only proxy:
+     * the node cache of the agent is read first, and keeps the versions looked up by the agent.
+     */
+    private PackageVersionCache getVersionCache() {
+        if (versionCache == null || versionCache instanceof SharedPackageVersionCache) {
+            return (SharedPackageVersionCache) versionCache;
+        }
+        return getNodeCache().over(versionCache);
+    }
+
+    private NodePackageVersionCache getNodeCache() {
+        NodePackageVersionCache nodeCache = NodePackageVersionCache.get();
+        nodeCache.configure(configuration.getVersionCacheTtl(), TimeUnit.MINUTES, configuration.getVersionCacheSize());
+        return nodeCache;
+    }
+
+    private NugetPackageCheckerVisitor collectDependencies(File file, PollStatistics statistics) throws IOException {
+        Path root = file.toPath();
+        File indexFile = ManifestIndex.getIndexFile(file);
+        ManifestIndex index = ManifestIndex.load(indexFile);
+        boolean walk = options.getChangedPaths() == null || index == null;
+        if (index == null) {
+            index = new ManifestIndex();
+        }
+        ManifestMatcher matcher = new ManifestMatcher(options.getManifestIncludes(), options.getExcludedDirectories());
+        NugetPackageCheckerVisitor visitor = new NugetPackageCheckerVisitor(log, root, index, matcher, ManifestParsers.createDefault());
+        visitor.setStatistics(statistics);
+        if (walk) {
+            Files.walkFileTree(root, visitor);
+        } else {
+            visitKnownManifests(root, index, matcher, visitor);
+        }
+        index.retain(visitor.getVisitedManifests());
+        try {
+            index.save(indexFile);
+        } catch (IOException ex) {
+            log.error(String.format("Failed to save the manifest index %s: %s", indexFile, ex));
+        }
+        return visitor;
+    }
+
+    /**
+     * Checks the indexed manifests and the changed manifests only, without walking the workspace.
+     */
+    private void visitKnownManifests(Path root, ManifestIndex index, ManifestMatcher matcher, NugetPackageCheckerVisitor visitor) throws IOException {
+        Set<String> paths = new TreeSet<>();
+        for (String path : index.getPaths()) {
+            if (matcher.isIncluded(path)) {
+                paths.add(path);
+            }
+        }
+        for (String changedPath : options.getChangedPaths()) {
+            if (matcher.isIncluded(changedPath)) {
+                paths.add(changedPath);
+            }
+        }
+        log.info(String.format("Checking %d known manifests without walking the workspace.", paths.size()));
+        for (String path : paths) {
+            Path manifest = root.resolve(path).normalize();
+            if (manifest.startsWith(root) && Files.isRegularFile(manifest)) {
+                visitor.visitFile(manifest, null);
+            }
         }
     }
 }
@@ -22,8 +22,10 @@ public class NugetPublishCommand extends NugetCommandBase {
         this.publishPath = publishPath;
     }
 
-    @Override
-    protected void enrichArguments(ArgumentListBuilder builder) {
+    /**
+     * @return the URL of the publication, with the publish path appended.
+     */
+    public static String getSourceUrl(NugetPublication publication, String publishPath) {
   	String fullUrl = publication.getUrl();
 
         //only append the path if it exists        
@@ -34,6 +36,12 @@ public class NugetPublishCommand extends NugetCommandBase {
 	    }
             fullUrl += publishPath;
         }
+        return fullUrl;
+    }
+
+    @Override
+    protected void enrichArguments(ArgumentListBuilder builder) {
+        String fullUrl = getSourceUrl(publication, publishPath);
 	
         builder.add("push");
         builder.add(packageFile);
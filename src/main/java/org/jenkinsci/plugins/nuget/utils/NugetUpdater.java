@@ -4,39 +4,80 @@ import hudson.FilePath;
 
 import java.io.IOException;
 
+import hudson.remoting.Channel;
+import hudson.remoting.VirtualChannel;
 import org.jenkinsci.lib.xtrigger.XTriggerLog;
 import org.jenkinsci.plugins.nuget.NugetGlobalConfiguration;
+import org.jenkinsci.plugins.nuget.triggers.NugetLookupMethod;
 import org.jenkinsci.plugins.nuget.triggers.logs.TriggerLog;
 
 /**
  * @author bgregg
  */
 public class NugetUpdater {
+    public static final String NO_LOOKUP = "(no lookup)";
+
     private final FilePath solutionDir;
-    private final NugetPackagesCheckerCallable nugetPackagesCheckerCallable;
+    private final NugetGlobalConfiguration configuration;
+    private final NugetCheckOptions options;
     private final TriggerLog log;
 
     public NugetUpdater(FilePath solutionDir, NugetGlobalConfiguration configuration, boolean checkPrerelease, TriggerLog log) {
+        this(solutionDir, configuration, new NugetCheckOptions(checkPrerelease, NugetLookupMethod.NUGET_EXE), log);
+    }
+
+    public NugetUpdater(FilePath solutionDir, NugetGlobalConfiguration configuration, NugetCheckOptions options, TriggerLog log) {
         this.solutionDir = solutionDir;
+        this.configuration = configuration;
+        this.options = options;
         this.log = log;
-        this.nugetPackagesCheckerCallable = new NugetPackagesCheckerCallable(configuration, checkPrerelease, log);
+    }
+
+    /**
+     * @return the feeds the lookups of a check are sent to, {@link #NO_LOOKUP} when the check only collects the packages.
+     */
+    public static String getFeed(NugetGlobalConfiguration configuration, NugetCheckOptions options) {
+        return options.isCollectOnly() ? NO_LOOKUP : PackageVersionResolver.getFeed(configuration, options.getLookupMethod());
     }
 
     public boolean performUpdate() {
+        return check().isUpdated();
+    }
+
+    /**
+     * @return the outdated packages of the workspace, none if the check failed.
+     */
+    public NugetCheckResult check() {
         try {
             return checkVersions();
         } catch (Throwable ex) {
             log.error(ex.toString());
-            return false;
+            return new NugetCheckResult();
         }
     }
 
-    private boolean checkVersions() throws InterruptedException, IOException {
+    private NugetCheckResult checkVersions() throws InterruptedException, IOException {
         if (solutionDir == null) {
             log.error("No workspace found. Ignoring trigger.");
-            return false;
+            return new NugetCheckResult();
         }
-        return solutionDir.act(nugetPackagesCheckerCallable);
+        NugetPackagesCheckerCallable callable = new NugetPackagesCheckerCallable(configuration, options, log, exportVersionCache());
+        return solutionDir.act(callable);
     }
-}
 
+    /**
+     * The shared cache lives on the controller: agents get a remote, read-only reference to it,
+     * so a version retrieved by one job is reused by every other job, wherever it polls.
+     * Only the versions looked up by the controller itself are stored in it: a version reported by an agent
+     * could not be trusted by the jobs of the other agents.
+     */
+    private ReadOnlyPackageVersionCache exportVersionCache() {
+        PackageVersionCache cache = configuration.getVersionCache();
+        VirtualChannel channel = solutionDir.getChannel();
+        if (channel instanceof Channel) {
+            ReadOnlyPackageVersionCache readOnly = cache::getCached;
+            return ((Channel) channel).export(ReadOnlyPackageVersionCache.class, readOnly);
+        }
+        return cache;
+    }
+}
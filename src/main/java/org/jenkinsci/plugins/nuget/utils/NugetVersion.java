@@ -0,0 +1,257 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.io.Serializable;
+
+/**
+ * A NuGet package version: a SemVer 2.0 version, with the optional fourth (revision) number NuGet allows.
+ * <p>
+ * Versions are normalized the way NuGet does: missing numbers are zero, leading zeros are ignored,
+ * and build metadata does not take part in comparisons, so {@code 1.0}, {@code 1.0.0} and {@code 1.0.0+sha} are equal.
+ * Prerelease versions sort before the release, and their labels are compared one by one,
+ * numerically when both are numbers and without case otherwise.
+ * <p>
+ * Parsing scans the string once and only keeps the prerelease part as a separate string, as it runs for each package on each poll.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public final class NugetVersion implements Comparable<NugetVersion>, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int major;
+    private final int minor;
+    private final int patch;
+    private final int revision;
+    private final String release;
+
+    NugetVersion(int major, int minor, int patch, int revision, String release) {
+        this.major = major;
+        this.minor = minor;
+        this.patch = patch;
+        this.revision = revision;
+        this.release = release;
+    }
+
+    /**
+     * @return the version, or null if the value is not a valid NuGet version.
+     */
+    public static NugetVersion tryParse(String value) {
+        if (value == null) {
+            return null;
+        }
+        return tryParse(value, 0, value.length());
+    }
+
+    /**
+     * Parses the version found between {@code start} (inclusive) and {@code end} (exclusive), ignoring surrounding spaces.
+     */
+    static NugetVersion tryParse(String value, int start, int end) {
+        while (start < end && value.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (start < end && (value.charAt(start) == 'v' || value.charAt(start) == 'V')) {
+            start++;
+        }
+        int[] numbers = new int[4];
+        int count = 0;
+        int position = start;
+        while (true) {
+            if (count == numbers.length) {
+                return null;
+            }
+            long number = 0;
+            int digits = 0;
+            while (position < end && isDigit(value.charAt(position))) {
+                number = number * 10 + (value.charAt(position++) - '0');
+                if (number > Integer.MAX_VALUE) {
+                    return null;
+                }
+                digits++;
+            }
+            if (digits == 0) {
+                return null;
+            }
+            numbers[count++] = (int) number;
+            if (position < end && value.charAt(position) == '.') {
+                position++;
+            } else {
+                break;
+            }
+        }
+        String release = null;
+        if (position < end && value.charAt(position) == '-') {
+            int releaseStart = ++position;
+            while (position < end && value.charAt(position) != '+') {
+                char c = value.charAt(position);
+                if (c == '.' ? position == releaseStart || value.charAt(position - 1) == '.' : !isIdentifier(c)) {
+                    return null;
+                }
+                position++;
+            }
+            if (position == releaseStart || value.charAt(position - 1) == '.') {
+                return null;
+            }
+            release = value.substring(releaseStart, position);
+        }
+        if (position < end && value.charAt(position) == '+') {
+            for (position++; position < end; position++) {
+                char c = value.charAt(position);
+                if (c != '.' && !isIdentifier(c)) {
+                    return null;
+                }
+            }
+        }
+        if (position != end) {
+            return null;
+        }
+        return new NugetVersion(numbers[0], numbers[1], numbers[2], numbers[3], release);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isIdentifier(char c) {
+        return isDigit(c) || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '-';
+    }
+
+    public int getMajor() {
+        return major;
+    }
+
+    public int getMinor() {
+        return minor;
+    }
+
+    public int getPatch() {
+        return patch;
+    }
+
+    public int getRevision() {
+        return revision;
+    }
+
+    /**
+     * @return the prerelease labels, without the leading dash, or null for a release.
+     */
+    public String getRelease() {
+        return release;
+    }
+
+    public boolean isPrerelease() {
+        return release != null;
+    }
+
+    @Override
+    public int compareTo(NugetVersion other) {
+        int result = Integer.compare(major, other.major);
+        if (result == 0) {
+            result = Integer.compare(minor, other.minor);
+        }
+        if (result == 0) {
+            result = Integer.compare(patch, other.patch);
+        }
+        if (result == 0) {
+            result = Integer.compare(revision, other.revision);
+        }
+        if (result == 0) {
+            result = compareRelease(release, other.release);
+        }
+        return result;
+    }
+
+    private static int compareRelease(String left, String right) {
+        if (left == null || right == null) {
+            return left == null ? (right == null ? 0 : 1) : -1;
+        }
+        int leftStart = 0;
+        int rightStart = 0;
+        while (leftStart < left.length() && rightStart < right.length()) {
+            int leftEnd = labelEnd(left, leftStart);
+            int rightEnd = labelEnd(right, rightStart);
+            int result = compareLabel(left, leftStart, leftEnd, right, rightStart, rightEnd);
+            if (result != 0) {
+                return result;
+            }
+            leftStart = leftEnd + 1;
+            rightStart = rightEnd + 1;
+        }
+        // a prefix of labels sorts first
+        boolean leftDone = leftStart >= left.length();
+        boolean rightDone = rightStart >= right.length();
+        return leftDone == rightDone ? 0 : leftDone ? -1 : 1;
+    }
+
+    private static int labelEnd(String value, int start) {
+        int end = value.indexOf('.', start);
+        return end < 0 ? value.length() : end;
+    }
+
+    private static int compareLabel(String left, int leftStart, int leftEnd, String right, int rightStart, int rightEnd) {
+        boolean leftNumeric = isNumeric(left, leftStart, leftEnd);
+        boolean rightNumeric = isNumeric(right, rightStart, rightEnd);
+        if (leftNumeric && rightNumeric) {
+            while (leftStart < leftEnd - 1 && left.charAt(leftStart) == '0') {
+                leftStart++;
+            }
+            while (rightStart < rightEnd - 1 && right.charAt(rightStart) == '0') {
+                rightStart++;
+            }
+            int result = Integer.compare(leftEnd - leftStart, rightEnd - rightStart);
+            for (int idx = 0; result == 0 && idx < leftEnd - leftStart; idx++) {
+                result = Character.compare(left.charAt(leftStart + idx), right.charAt(rightStart + idx));
+            }
+            return result;
+        }
+        if (leftNumeric != rightNumeric) {
+            return leftNumeric ? -1 : 1;
+        }
+        int length = Math.min(leftEnd - leftStart, rightEnd - rightStart);
+        for (int idx = 0; idx < length; idx++) {
+            int result = Character.compare(
+                    Character.toLowerCase(left.charAt(leftStart + idx)),
+                    Character.toLowerCase(right.charAt(rightStart + idx)));
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(leftEnd - leftStart, rightEnd - rightStart);
+    }
+
+    private static boolean isNumeric(String value, int start, int end) {
+        for (int idx = start; idx < end; idx++) {
+            if (!isDigit(value.charAt(idx))) {
+                return false;
+            }
+        }
+        return end > start;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof NugetVersion && compareTo((NugetVersion) obj) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        // prerelease labels compare loosely (case, leading zeros), they are left out of the hash
+        return (((major * 31 + minor) * 31 + patch) * 31 + revision) * 2 + (release == null ? 0 : 1);
+    }
+
+    /**
+     * @return the normalized form of the version: three numbers, the revision when not zero, and the prerelease labels.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder().append(major).append('.').append(minor).append('.').append(patch);
+        if (revision != 0) {
+            builder.append('.').append(revision);
+        }
+        if (release != null) {
+            builder.append('-').append(release);
+        }
+        return builder.toString();
+    }
+}
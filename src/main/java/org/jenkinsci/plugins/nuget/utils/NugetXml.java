@@ -0,0 +1,24 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import javax.xml.stream.XMLInputFactory;
+
+/**
+ * XML helpers shared by the NuGet readers.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public final class NugetXml {
+
+    private NugetXml() {
+    }
+
+    /**
+     * @return a StAX factory that neither processes DTDs nor resolves external entities.
+     */
+    public static XMLInputFactory newInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
@@ -0,0 +1,83 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Enumeration;
+import java.util.Locale;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Reads the id and version of a package from the {@code .nuspec} at the root of its {@code .nupkg}.
+ * Only the central directory of the archive and the {@code .nuspec} entry are read, the package is never extracted.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public final class NuspecReader {
+
+    private NuspecReader() {
+    }
+
+    public static PackageReference read(File packageFile) throws IOException {
+        try (ZipFile zip = new ZipFile(packageFile)) {
+            ZipEntry nuspec = findNuspec(zip);
+            if (nuspec == null) {
+                throw new IOException("No .nuspec in package " + packageFile.getName());
+            }
+            try (InputStream stream = zip.getInputStream(nuspec)) {
+                return read(stream, packageFile.getName());
+            }
+        }
+    }
+
+    private static ZipEntry findNuspec(ZipFile zip) {
+        Enumeration<? extends ZipEntry> entries = zip.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            String name = entry.getName();
+            if (!entry.isDirectory() && name.indexOf('/') < 0 && name.toLowerCase(Locale.ENGLISH).endsWith(".nuspec")) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private static PackageReference read(InputStream stream, String packageName) throws IOException {
+        try {
+            XMLStreamReader reader = NugetXml.newInputFactory().createXMLStreamReader(stream);
+            try {
+                String id = null;
+                String version = null;
+                int depth = 0;
+                while (reader.hasNext() && (id == null || version == null)) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.END_ELEMENT) {
+                        depth--;
+                    } else if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                        // package/metadata/id and package/metadata/version
+                        if (depth == 3 && "id".equals(reader.getLocalName())) {
+                            id = reader.getElementText().trim();
+                            depth--;
+                        } else if (depth == 3 && "version".equals(reader.getLocalName())) {
+                            version = reader.getElementText().trim();
+                            depth--;
+                        }
+                    }
+                }
+                if (id == null || id.isEmpty() || version == null || version.isEmpty()) {
+                    throw new IOException("No id or version in the .nuspec of package " + packageName);
+                }
+                return new PackageReference(id, version);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException ex) {
+            throw new IOException("Invalid .nuspec in package " + packageName, ex);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * A package referenced by the workspace, with every version it is referenced with
+ * and the manifests referencing each version.
+ *
+ * @author Arnaud TAMAILLON
+ */
+class PackageDependency implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String id;
+    private final TreeMap<String, Set<String>> versions = new TreeMap<>();
+
+    PackageDependency(String id) {
+        this.id = id;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    Set<String> getVersions() {
+        return Collections.unmodifiableSet(versions.keySet());
+    }
+
+    /**
+     * @return the workspace relative paths of the manifests referencing the version.
+     */
+    Set<String> getManifests(String version) {
+        Set<String> manifests = versions.get(version);
+        return manifests == null ? Collections.<String>emptySet() : Collections.unmodifiableSet(manifests);
+    }
+
+    void addVersion(String version, String manifest) {
+        Set<String> manifests = versions.get(version);
+        if (manifests == null) {
+            manifests = new TreeSet<>();
+            versions.put(version, manifests);
+        }
+        manifests.add(manifest);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof PackageDependency)) {
+            return false;
+        }
+        PackageDependency other = (PackageDependency) obj;
+        return id.equals(other.id) && versions.equals(other.versions);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * id.hashCode() + versions.hashCode();
+    }
+}
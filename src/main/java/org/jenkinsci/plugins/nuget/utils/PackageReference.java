@@ -0,0 +1,28 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.io.Serializable;
+
+/**
+ * A package id and version, as found in a dependency manifest.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public class PackageReference implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String id;
+    private final String version;
+
+    public PackageReference(String id, String version) {
+        this.id = id;
+        this.version = version;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,50 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A package version referenced by the workspace that is not the latest one.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public class PackageUpdate implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String id;
+    private final String version;
+    private final String latest;
+    private final List<String> manifests;
+
+    public PackageUpdate(String id, String version, String latest, Collection<String> manifests) {
+        this.id = id;
+        this.version = version;
+        this.latest = latest;
+        this.manifests = new ArrayList<>(manifests);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the latest version, or null if the package was not found on the feeds.
+     */
+    public String getLatest() {
+        return latest;
+    }
+
+    /**
+     * @return the workspace relative paths of the manifests referencing this version.
+     */
+    public List<String> getManifests() {
+        return Collections.unmodifiableList(manifests);
+    }
+}
@@ -0,0 +1,211 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Index of the jobs referencing each package, persisted on the controller.
+ * <p>
+ * Every poll replaces the packages referenced by its job, and the file is only rewritten when they changed,
+ * whatever the order the manifests were visited in.
+ * The file lists the packages job by job, with their versions and the manifests referencing each version.
+ * It is loaded into a map by package id, so the jobs using a package are found without any workspace.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public class PackageUsageIndex {
+
+    public static final String FILE_NAME = "nuget-package-index";
+    private static final int MAGIC = 0x4e475049;
+    private static final int FORMAT_VERSION = 1;
+    private static final Comparator<PackageDependency> BY_ID =
+            Comparator.comparing(PackageDependency::getId, String.CASE_INSENSITIVE_ORDER).thenComparing(PackageDependency::getId);
+
+    private final File file;
+    private final Map<String, List<PackageDependency>> packagesByJob = new HashMap<>();
+    /**
+     * The package of each job referencing it, by lower case package id.
+     */
+    private final Map<String, Map<String, PackageDependency>> jobsByPackage = new HashMap<>();
+
+    private PackageUsageIndex(File file) {
+        this.file = file;
+    }
+
+    /**
+     * @return the persisted index, or an empty index if there is none or it cannot be read.
+     */
+    public static PackageUsageIndex load(File file) {
+        PackageUsageIndex index = new PackageUsageIndex(file);
+        if (!file.isFile()) {
+            return index;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return index;
+            }
+            int jobCount = in.readInt();
+            for (int job = 0; job < jobCount; job++) {
+                String name = in.readUTF();
+                int packageCount = in.readInt();
+                List<PackageDependency> dependencies = new ArrayList<>(packageCount);
+                for (int pkg = 0; pkg < packageCount; pkg++) {
+                    PackageDependency dependency = new PackageDependency(in.readUTF());
+                    int versionCount = in.readInt();
+                    for (int version = 0; version < versionCount; version++) {
+                        String value = in.readUTF();
+                        int manifestCount = in.readInt();
+                        for (int manifest = 0; manifest < manifestCount; manifest++) {
+                            dependency.addVersion(value, in.readUTF());
+                        }
+                    }
+                    dependencies.add(dependency);
+                }
+                index.put(name, dependencies);
+            }
+        } catch (IOException ex) {
+            return new PackageUsageIndex(file);
+        }
+        return index;
+    }
+
+    /**
+     * Replaces the packages referenced by the job with the ones of a check.
+     */
+    public synchronized void update(String job, NugetCheckResult result) throws IOException {
+        if (result.getDependencies() == null) {
+            return;
+        }
+        List<PackageDependency> dependencies = new ArrayList<>(result.getDependencies());
+        dependencies.sort(BY_ID);
+        if (dependencies.equals(packagesByJob.get(job))) {
+            return;
+        }
+        removeJob(job);
+        put(job, dependencies);
+        save();
+    }
+
+    /**
+     * Forgets a deleted job, and the jobs it contains.
+     */
+    public synchronized void remove(String job) throws IOException {
+        boolean removed = removeJob(job);
+        String prefix = job + "/";
+        for (String name : new ArrayList<>(packagesByJob.keySet())) {
+            if (name.startsWith(prefix)) {
+                removed |= removeJob(name);
+            }
+        }
+        if (removed) {
+            save();
+        }
+    }
+
+    public synchronized void rename(String oldJob, String newJob) throws IOException {
+        List<PackageDependency> dependencies = packagesByJob.get(oldJob);
+        if (dependencies != null) {
+            removeJob(oldJob);
+            put(newJob, dependencies);
+            save();
+        }
+    }
+
+    /**
+     * @return the full names of the jobs referencing the package.
+     */
+    public synchronized SortedSet<String> getJobs(String id) {
+        Map<String, PackageDependency> jobs = jobsByPackage.get(id.toLowerCase(Locale.ENGLISH));
+        return jobs == null ? Collections.<String>emptySortedSet() : Collections.unmodifiableSortedSet(new TreeSet<>(jobs.keySet()));
+    }
+
+    /**
+     * @return the versions of the package referenced by the job, by version, with the manifests referencing each of them.
+     */
+    public synchronized Map<String, Set<String>> getVersions(String id, String job) {
+        Map<String, PackageDependency> jobs = jobsByPackage.get(id.toLowerCase(Locale.ENGLISH));
+        PackageDependency dependency = jobs == null ? null : jobs.get(job);
+        Map<String, Set<String>> versions = new TreeMap<>();
+        if (dependency != null) {
+            for (String version : dependency.getVersions()) {
+                versions.put(version, dependency.getManifests(version));
+            }
+        }
+        return Collections.unmodifiableMap(versions);
+    }
+
+    private void put(String job, List<PackageDependency> dependencies) {
+        packagesByJob.put(job, dependencies);
+        for (PackageDependency dependency : dependencies) {
+            jobsByPackage.computeIfAbsent(dependency.getId().toLowerCase(Locale.ENGLISH), id -> new HashMap<>()).put(job, dependency);
+        }
+    }
+
+    private boolean removeJob(String job) {
+        List<PackageDependency> dependencies = packagesByJob.remove(job);
+        if (dependencies == null) {
+            return false;
+        }
+        for (PackageDependency dependency : dependencies) {
+            String id = dependency.getId().toLowerCase(Locale.ENGLISH);
+            Map<String, PackageDependency> jobs = jobsByPackage.get(id);
+            if (jobs != null) {
+                jobs.remove(job);
+                if (jobs.isEmpty()) {
+                    jobsByPackage.remove(id);
+                }
+            }
+        }
+        return true;
+    }
+
+    private void save() throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent);
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(packagesByJob.size());
+            for (Map.Entry<String, List<PackageDependency>> job : packagesByJob.entrySet()) {
+                out.writeUTF(job.getKey());
+                out.writeInt(job.getValue().size());
+                for (PackageDependency dependency : job.getValue()) {
+                    out.writeUTF(dependency.getId());
+                    Set<String> versions = dependency.getVersions();
+                    out.writeInt(versions.size());
+                    for (String version : versions) {
+                        Set<String> manifests = dependency.getManifests(version);
+                        out.writeUTF(version);
+                        out.writeInt(manifests.size());
+                        for (String manifest : manifests) {
+                            out.writeUTF(manifest);
+                        }
+                    }
+                }
+            }
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
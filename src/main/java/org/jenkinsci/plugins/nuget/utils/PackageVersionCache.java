@@ -0,0 +1,13 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+/**
+ * Cache of latest package versions.
+ * <p>
+ * Implementations must be thread safe: the packages of a workspace are resolved concurrently.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public interface PackageVersionCache extends ReadOnlyPackageVersionCache {
+
+    void put(PackageVersionKey key, String version);
+}
@@ -0,0 +1,66 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.io.Serializable;
+import java.util.Locale;
+
+/**
+ * Identifies a latest version lookup: the feed it was made against, the package id
+ * (NuGet ids are case insensitive) and whether prerelease versions were accepted.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public final class PackageVersionKey implements Serializable {
+
+    /**
+     * Feed used when the lookup relies on the sources configured in NuGet.config.
+     */
+    public static final String DEFAULT_FEED = "NuGet.config";
+
+    private static final long serialVersionUID = 1L;
+
+    private final String feed;
+    private final String id;
+    private final boolean prerelease;
+
+    public PackageVersionKey(String feed, String id, boolean prerelease) {
+        this.feed = feed == null ? DEFAULT_FEED : feed;
+        this.id = id.toLowerCase(Locale.ENGLISH);
+        this.prerelease = prerelease;
+    }
+
+    public String getFeed() {
+        return feed;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public boolean isPrerelease() {
+        return prerelease;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PackageVersionKey)) {
+            return false;
+        }
+        PackageVersionKey other = (PackageVersionKey) o;
+        return prerelease == other.prerelease && feed.equals(other.feed) && id.equals(other.id);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = feed.hashCode();
+        result = 31 * result + id.hashCode();
+        return 31 * result + (prerelease ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s@%s%s", id, feed, prerelease ? " (prerelease)" : "");
+    }
+}
@@ -0,0 +1,136 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+/**
+ * Forwards the output of {@code NuGet.exe list} and picks the version of a package from it, line by line, as it arrives.
+ * When several sources list the package, the highest version is kept.
+ * <p>
+ * Only the line being written is kept, in a fixed size buffer: the output is never held in memory as a whole,
+ * whatever the number of packages listed. Lines longer than the buffer cannot be package lines and are ignored.
+ *
+ * @author Arnaud TAMAILLON
+ */
+class PackageVersionOutputStream extends OutputStream {
+
+    static final int MAX_LINE_LENGTH = 1024;
+
+    private final OutputStream stream;
+    private final Charset charset;
+    private final byte[] id;
+    private final byte[] line = new byte[MAX_LINE_LENGTH];
+    private int length;
+    private boolean overflow;
+    private String version;
+
+    PackageVersionOutputStream(OutputStream stream, String packageName) {
+        this.stream = stream;
+        // NuGet.exe writes with the platform encoding
+        this.charset = Charset.defaultCharset();
+        this.id = packageName.getBytes(charset);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        stream.write(b);
+        if (b == '\n') {
+            endLine();
+        } else if (length < line.length) {
+            line[length++] = (byte) b;
+        } else {
+            overflow = true;
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        stream.write(b, off, len);
+        int start = off;
+        int end = off + len;
+        for (int idx = off; idx < end; idx++) {
+            if (b[idx] == '\n') {
+                append(b, start, idx - start);
+                endLine();
+                start = idx + 1;
+            }
+        }
+        append(b, start, end - start);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        stream.flush();
+    }
+
+    /**
+     * Reads the last line, the forwarded stream is left open.
+     */
+    @Override
+    public void close() throws IOException {
+        if (length > 0 || overflow) {
+            endLine();
+        }
+        stream.flush();
+    }
+
+    /**
+     * @return the highest version listed for the package, or null if none was.
+     */
+    String getVersion() {
+        return version;
+    }
+
+    private void append(byte[] b, int off, int len) {
+        if (overflow) {
+            return;
+        }
+        if (len > line.length - length) {
+            overflow = true;
+            return;
+        }
+        System.arraycopy(b, off, line, length, len);
+        length += len;
+    }
+
+    private void endLine() {
+        if (!overflow) {
+            matchLine();
+        }
+        length = 0;
+        overflow = false;
+    }
+
+    /**
+     * Package lines are the package id, a space and the version.
+     */
+    private void matchLine() {
+        int end = length;
+        if (end > 0 && line[end - 1] == '\r') {
+            end--;
+        }
+        if (end <= id.length || line[id.length] != ' ') {
+            return;
+        }
+        for (int idx = 0; idx < id.length; idx++) {
+            if (toLowerCase(line[idx]) != toLowerCase(id[idx])) {
+                return;
+            }
+        }
+        String listed = new String(line, id.length + 1, end - id.length - 1, charset).trim();
+        if (version == null || isHigher(listed, version)) {
+            version = listed;
+        }
+    }
+
+    private static boolean isHigher(String listed, String current) {
+        NugetVersion listedVersion = NugetVersion.tryParse(listed);
+        NugetVersion currentVersion = NugetVersion.tryParse(current);
+        return listedVersion == null || currentVersion == null || listedVersion.compareTo(currentVersion) > 0;
+    }
+
+    private static int toLowerCase(byte b) {
+        return b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b;
+    }
+}
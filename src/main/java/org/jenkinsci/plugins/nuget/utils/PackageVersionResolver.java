@@ -0,0 +1,182 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import hudson.FilePath;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import org.jenkinsci.plugins.nuget.NugetGlobalConfiguration;
+import org.jenkinsci.plugins.nuget.triggers.NugetLookupMethod;
+import org.jenkinsci.plugins.nuget.triggers.logs.TriggerLog;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Resolves the latest version of a batch of packages concurrently, on a bounded pool,
+ * with a limited number of concurrent lookups per feed.
+ *
+ * @author Arnaud TAMAILLON
+ */
+class PackageVersionResolver {
+
+    /**
+     * Receives the latest versions as they are resolved, in completion order.
+     */
+    interface Listener {
+        /**
+         * @return true to stop the resolution: pending lookups are abandoned.
+         */
+        boolean versionRetrieved(PackageDependency dependency, String latest);
+    }
+
+    private final TriggerLog log;
+    private final NugetGlobalConfiguration configuration;
+    private final boolean preReleaseChecked;
+    private final FilePath workspaceRoot;
+    private final PackageVersionCache versionCache;
+    private final NugetLookupMethod lookupMethod;
+    private final FeedThrottle throttle;
+    private PollStatistics statistics = new PollStatistics();
+
+    PackageVersionResolver(TriggerLog log, NugetGlobalConfiguration configuration, boolean preReleaseChecked, FilePath workspaceRoot, PackageVersionCache versionCache, NugetLookupMethod lookupMethod) {
+        this.log = log;
+        this.configuration = configuration;
+        this.preReleaseChecked = preReleaseChecked;
+        this.workspaceRoot = workspaceRoot;
+        this.versionCache = versionCache;
+        this.lookupMethod = lookupMethod;
+        this.throttle = FeedThrottle.get(configuration.getLookupsPerFeed());
+    }
+
+    void setStatistics(PollStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    void resolve(Collection<PackageDependency> dependencies, Listener listener) throws InterruptedException {
+        if (dependencies.isEmpty()) {
+            return;
+        }
+        int threads = Math.min(configuration.getLookupThreads(), dependencies.size());
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new NamingThreadFactory(new DaemonThreadFactory(), "NuGet version lookup"));
+        AtomicBoolean stopped = new AtomicBoolean();
+        try {
+            CompletionService<ResolvedVersion> completionService = new ExecutorCompletionService<>(executor);
+            for (PackageDependency dependency : dependencies) {
+                completionService.submit(() -> stopped.get() ? null : new ResolvedVersion(dependency, getPackageVersion(dependency.getId())));
+            }
+            for (int idx = 0; idx < dependencies.size() && !stopped.get(); idx++) {
+                ResolvedVersion result = take(completionService);
+                if (result != null && listener.versionRetrieved(result.dependency, result.version)) {
+                    stopped.set(true);
+                }
+            }
+        } finally {
+            stopped.set(true);
+            executor.shutdown();
+            awaitTermination(executor);
+        }
+    }
+
+    /**
+     * Lookups already started are left to complete, so that no NuGet process outlives the poll.
+     */
+    private static void awaitTermination(ExecutorService executor) throws InterruptedException {
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            executor.shutdownNow();
+            throw ex;
+        }
+    }
+
+    private ResolvedVersion take(CompletionService<ResolvedVersion> completionService) throws InterruptedException {
+        try {
+            return completionService.take().get();
+        } catch (ExecutionException ex) {
+            log.error(ex.getCause().toString());
+            return null;
+        }
+    }
+
+    private String getPackageVersion(String packageName) throws IOException, InterruptedException {
+        PackageVersionKey key = new PackageVersionKey(getFeed(), packageName, preReleaseChecked);
+        String version = versionCache == null ? null : versionCache.get(key);
+        if (version != null) {
+            statistics.cacheHit();
+            log.reusingCachedPackageVersion(packageName);
+            return version;
+        }
+        if (versionCache != null) {
+            statistics.cacheMiss();
+        }
+        version = lookup(packageName);
+        if (version != null && versionCache != null) {
+            versionCache.put(key, version);
+        }
+        return version;
+    }
+
+    private String lookup(String packageName) throws IOException, InterruptedException {
+        if (lookupMethod == NugetLookupMethod.HTTP) {
+            NugetHttpGetLatestPackageVersionCommand command = new NugetHttpGetLatestPackageVersionCommand(log, configuration.getPackageSourceList(), packageName, preReleaseChecked, throttle);
+            command.setStatistics(statistics);
+            return getVersion(command, packageName);
+        }
+        String feed = getFeed();
+        throttle.acquire(feed);
+        try {
+            NugetGetLatestPackageVersionCommand command = new NugetGetLatestPackageVersionCommand(log, configuration, workspaceRoot, packageName, preReleaseChecked);
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                String version = getVersion(command, packageName);
+                success = true;
+                return version;
+            } finally {
+                statistics.lookedUp(feed, System.nanoTime() - start, success);
+            }
+        } finally {
+            throttle.release(feed);
+        }
+    }
+
+    /**
+     * A failed lookup does not tell the package has no version: it is left out of this poll instead of being reported.
+     */
+    private static String getVersion(LatestPackageVersionCommand command, String packageName) throws IOException {
+        if (!command.execute()) {
+            throw new IOException(String.format("Failed to look up the latest version of %s, it is not checked by this poll.", packageName));
+        }
+        return command.getVersion();
+    }
+
+    private String getFeed() {
+        return getFeed(configuration, lookupMethod);
+    }
+
+    /**
+     * @return the key of the feeds queried by the lookups of a method.
+     */
+    static String getFeed(NugetGlobalConfiguration configuration, NugetLookupMethod lookupMethod) {
+        if (lookupMethod == NugetLookupMethod.HTTP) {
+            return String.join(" ", configuration.getPackageSourceList());
+        }
+        return NugetGetLatestPackageVersionCommand.getSourcesKey(configuration);
+    }
+
+    private static final class ResolvedVersion {
+        private final PackageDependency dependency;
+        private final String version;
+
+        private ResolvedVersion(PackageDependency dependency, String version) {
+            this.dependency = dependency;
+            this.version = version;
+        }
+    }
+}
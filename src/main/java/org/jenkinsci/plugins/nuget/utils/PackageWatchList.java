@@ -0,0 +1,305 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import org.jenkinsci.plugins.nuget.NugetGlobalConfiguration;
+import org.jenkinsci.plugins.nuget.triggers.NugetLookupMethod;
+import org.jenkinsci.plugins.nuget.triggers.NugetUpdatePolicy;
+import org.jenkinsci.plugins.nuget.triggers.logs.TriggerLog;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The packages watched on behalf of the jobs using the feed watch.
+ * <p>
+ * Each job subscribes with the packages referenced by its workspace. A refresh looks up the latest version
+ * of each distinct watched package once, whatever the number of jobs referencing it, and returns the jobs
+ * having outdated packages. A job is notified once per latest version of a package: it is not notified again
+ * until a newer version is published.
+ * <p>
+ * When the catalogs of the feeds are read, a refresh only looks up the watched packages changed in the catalog
+ * of a feed since the previous refresh, and the packages never looked up before. The other packages keep
+ * the latest version found by a previous refresh. The position reached in the catalog of each feed is kept in memory:
+ * the first refresh after a restart, or after a feed without a catalog is configured, looks up every package.
+ * <p>
+ * The jobs are also indexed by watched package, so that a version notified as published, see {@link #published(String, String)},
+ * schedules the jobs referencing the package without any lookup.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public class PackageWatchList {
+
+    private final ConcurrentMap<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+    /**
+     * The jobs watching each package, by lower case id.
+     */
+    private final ConcurrentMap<String, Set<String>> jobsByPackage = new ConcurrentHashMap<>();
+    private final Map<String, Instant> cursors = new ConcurrentHashMap<>();
+    private final Map<String, String> releases = new ConcurrentHashMap<>();
+    private final Map<String, String> prereleases = new ConcurrentHashMap<>();
+    private Set<String> previouslyChanged = Collections.emptySet();
+    private final NugetCatalogReader catalogReader;
+
+    public PackageWatchList() {
+        this(NugetFeedClient.get());
+    }
+
+    PackageWatchList(NugetFeedClient client) {
+        this.catalogReader = new NugetCatalogReader(client);
+    }
+
+    /**
+     * Replaces the packages watched for the job.
+     *
+     * @param collected the result of a check that only collected the packages.
+     */
+    public void subscribe(String job, boolean prerelease, NugetUpdatePolicy policy, NugetCheckResult collected) {
+        List<PackageDependency> dependencies = collected.getDependencies();
+        if (dependencies == null) {
+            return;
+        }
+        Subscription previous = subscriptions.get(job);
+        Subscription subscription = new Subscription(prerelease, policy, dependencies);
+        if (previous != null && previous.prerelease == prerelease) {
+            subscription.notified.putAll(previous.notified);
+        }
+        previous = subscriptions.put(job, subscription);
+        if (previous != null) {
+            removeFromIndex(job, previous);
+        }
+        for (String id : subscription.getIds()) {
+            jobsByPackage.compute(id, (key, jobs) -> {
+                Set<String> indexed = jobs == null ? ConcurrentHashMap.newKeySet() : jobs;
+                indexed.add(job);
+                return indexed;
+            });
+        }
+    }
+
+    public void unsubscribe(String job) {
+        Subscription subscription = subscriptions.remove(job);
+        if (subscription != null) {
+            removeFromIndex(job, subscription);
+        }
+    }
+
+    private void removeFromIndex(String job, Subscription subscription) {
+        for (String id : subscription.getIds()) {
+            jobsByPackage.computeIfPresent(id, (key, jobs) -> {
+                // the job may have subscribed again with the same package meanwhile
+                Subscription current = subscriptions.get(job);
+                if (current == null || !current.getIds().contains(id)) {
+                    jobs.remove(job);
+                }
+                return jobs.isEmpty() ? null : jobs;
+            });
+        }
+    }
+
+    public boolean isEmpty() {
+        return subscriptions.isEmpty();
+    }
+
+    public Set<String> getJobs() {
+        return Collections.unmodifiableSet(subscriptions.keySet());
+    }
+
+    /**
+     * Looks up the latest version of every watched package, once per package,
+     * or only of the changed ones when the catalogs of the feeds are read.
+     *
+     * @return the updates of each job having outdated packages not notified yet.
+     */
+    public Map<String, NugetCheckResult> refresh(TriggerLog log, NugetGlobalConfiguration configuration) throws InterruptedException {
+        Map<String, Subscription> current = new HashMap<>(subscriptions);
+        Set<String> changed = configuration.isReadCatalogs() ? readCatalogs(log, configuration) : null;
+        resolve(log, configuration, current, false, changed, releases);
+        resolve(log, configuration, current, true, changed, prereleases);
+
+        Map<String, NugetCheckResult> updates = new LinkedHashMap<>();
+        for (Map.Entry<String, Subscription> entry : current.entrySet()) {
+            Subscription subscription = entry.getValue();
+            NugetCheckResult result = subscription.check(subscription.prerelease ? prereleases : releases);
+            if (result.isUpdated()) {
+                log.info(String.format("%s has %d outdated packages.", entry.getKey(), result.getUpdates().size()));
+                updates.put(entry.getKey(), result);
+            }
+        }
+        return updates;
+    }
+
+    /**
+     * Checks the jobs referencing a package against a version just published, without looking it up.
+     * Prereleases are only checked by the jobs watching prereleases.
+     *
+     * @return the updates of each job for which the version is an update not notified yet.
+     */
+    public Map<String, NugetCheckResult> published(String id, String version) {
+        String lowerId = id.toLowerCase(Locale.ENGLISH);
+        NugetVersion published = NugetVersion.tryParse(version);
+        boolean prerelease = published == null ? version.indexOf('-') >= 0 : published.isPrerelease();
+        if (!prerelease) {
+            remember(releases, lowerId, version, published);
+        }
+        remember(prereleases, lowerId, version, published);
+
+        Map<String, NugetCheckResult> updates = new LinkedHashMap<>();
+        for (String job : jobsByPackage.getOrDefault(lowerId, Collections.emptySet())) {
+            Subscription subscription = subscriptions.get(job);
+            if (subscription == null || prerelease && !subscription.prerelease) {
+                continue;
+            }
+            NugetCheckResult result = subscription.check(Collections.singletonMap(lowerId, version));
+            if (result.isUpdated()) {
+                updates.put(job, result);
+            }
+        }
+        return updates;
+    }
+
+    /**
+     * Keeps the published version as the latest known one, unless a newer version is already known.
+     */
+    private static void remember(Map<String, String> latest, String lowerId, String version, NugetVersion published) {
+        latest.computeIfPresent(lowerId, (key, known) -> {
+            NugetVersion knownVersion = NugetVersion.tryParse(known);
+            return published != null && knownVersion != null && published.compareTo(knownVersion) > 0 ? version : known;
+        });
+    }
+
+    /**
+     * Reads the catalog of each feed from the position reached by the previous refresh.
+     *
+     * @return the lower case ids of the packages changed on any feed, or null if the changes of a feed are unknown.
+     */
+    private Set<String> readCatalogs(TriggerLog log, NugetGlobalConfiguration configuration) {
+        Set<String> changed = new HashSet<>();
+        boolean complete = true;
+        for (String feed : configuration.getPackageSourceList()) {
+            Instant cursor = cursors.get(feed);
+            NugetCatalogReader.Changes changes;
+            try {
+                changes = catalogReader.readChanges(feed, cursor);
+            } catch (IOException ex) {
+                log.error(String.format("Failed to read the catalog of %s: %s", feed, ex));
+                complete = false;
+                continue;
+            }
+            if (changes == null) {
+                log.info(String.format("%s has no catalog, its packages are looked up one by one.", feed));
+                complete = false;
+                continue;
+            }
+            if (changes.getCursor() != null) {
+                cursors.put(feed, changes.getCursor());
+            }
+            if (cursor == null) {
+                complete = false;
+            } else {
+                log.info(String.format("%d packages changed in the catalog of %s.", changes.getIds().size(), feed));
+                changed.addAll(changes.getIds());
+            }
+        }
+        // the flat container of a feed is updated after its catalog: the packages are looked up again by the next refresh
+        Set<String> recent = new HashSet<>(changed);
+        recent.addAll(previouslyChanged);
+        previouslyChanged = changed;
+        return complete ? recent : null;
+    }
+
+    /**
+     * Looks up the packages watched with or without prereleases that changed or were not found yet.
+     *
+     * @param changed the lower case ids of the changed packages, null to look up every package.
+     * @param latest the latest versions by lower case id, updated with the versions found.
+     */
+    private static void resolve(TriggerLog log, NugetGlobalConfiguration configuration, Map<String, Subscription> subscriptions, boolean prerelease,
+                                Set<String> changed, Map<String, String> latest) throws InterruptedException {
+        if (changed == null) {
+            latest.clear();
+        } else {
+            latest.keySet().removeAll(changed);
+        }
+        Set<String> watchedIds = new HashSet<>();
+        Map<String, PackageDependency> watched = new LinkedHashMap<>();
+        for (Subscription subscription : subscriptions.values()) {
+            if (subscription.prerelease == prerelease) {
+                for (PackageDependency dependency : subscription.dependencies) {
+                    String id = dependency.getId().toLowerCase(Locale.ENGLISH);
+                    watchedIds.add(id);
+                    if (!latest.containsKey(id)) {
+                        watched.putIfAbsent(id, new PackageDependency(dependency.getId()));
+                    }
+                }
+            }
+        }
+        latest.keySet().retainAll(watchedIds);
+        if (watched.isEmpty()) {
+            return;
+        }
+        log.info(String.format("Looking up %d watched packages%s.", watched.size(), prerelease ? " with prereleases" : ""));
+        PackageVersionResolver resolver = new PackageVersionResolver(log, configuration, prerelease, null, null, NugetLookupMethod.HTTP);
+        resolver.resolve(watched.values(), (dependency, version) -> {
+            log.packageVersionRetrieved(dependency.getId(), version);
+            if (version != null) {
+                latest.put(dependency.getId().toLowerCase(Locale.ENGLISH), version);
+            }
+            return false;
+        });
+    }
+
+    private static final class Subscription {
+        private final boolean prerelease;
+        private final NugetUpdatePolicy policy;
+        private final List<PackageDependency> dependencies;
+        private final Set<String> ids = new HashSet<>();
+        /**
+         * The latest version the job was last notified of, by lower case package id.
+         */
+        private final Map<String, String> notified = new ConcurrentHashMap<>();
+
+        private Subscription(boolean prerelease, NugetUpdatePolicy policy, List<PackageDependency> dependencies) {
+            this.prerelease = prerelease;
+            this.policy = policy;
+            this.dependencies = dependencies;
+            for (PackageDependency dependency : dependencies) {
+                ids.add(dependency.getId().toLowerCase(Locale.ENGLISH));
+            }
+        }
+
+        private Set<String> getIds() {
+            return ids;
+        }
+
+        private NugetCheckResult check(Map<String, String> latestVersions) {
+            NugetCheckResult result = new NugetCheckResult();
+            for (PackageDependency dependency : dependencies) {
+                String id = dependency.getId().toLowerCase(Locale.ENGLISH);
+                String latest = latestVersions.get(id);
+                if (latest == null) {
+                    continue;
+                }
+                result.packageChecked();
+                if (latest.equals(notified.get(id))) {
+                    continue;
+                }
+                for (String version : dependency.getVersions()) {
+                    if (policy.isUpdate(version, latest)) {
+                        result.addUpdate(new PackageUpdate(dependency.getId(), version, latest, dependency.getManifests(version)));
+                        notified.put(id, latest);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import javax.xml.stream.XMLStreamReader;
+import java.util.List;
+
+/**
+ * Reads the {@code <package id="..." version="..."/>} elements of packages.config files.
+ *
+ * @author Arnaud TAMAILLON
+ */
+class PackagesConfigParser extends XmlManifestParser {
+
+    @Override
+    public boolean accepts(String fileName) {
+        return fileName.equalsIgnoreCase("packages.config");
+    }
+
+    @Override
+    protected void startElement(XMLStreamReader reader, List<PackageReference> packages) {
+        if (!"package".equals(reader.getLocalName())) {
+            return;
+        }
+        String id = attribute(reader, "id");
+        String version = attribute(reader, "version");
+        if (id != null && version != null) {
+            packages.add(new PackageReference(id, version));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the resolved versions of the direct dependencies listed in packages.lock.json files,
+ * for every target framework.
+ *
+ * @author Arnaud TAMAILLON
+ */
+class PackagesLockFileParser implements ManifestParser {
+
+    private final char[] buffer = new char[8192];
+
+    @Override
+    public boolean accepts(String fileName) {
+        return fileName.equalsIgnoreCase("packages.lock.json");
+    }
+
+    @Override
+    public List<PackageReference> parse(Path file) throws IOException, ManifestParseException {
+        List<PackageReference> packages = new ArrayList<>();
+        try (Reader in = new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8)) {
+            JsonStreamReader reader = new JsonStreamReader(in, buffer);
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("dependencies".equals(reader.nextName())) {
+                    readFrameworks(reader, packages);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        return packages;
+    }
+
+    private static void readFrameworks(JsonStreamReader reader, List<PackageReference> packages) throws IOException, ManifestParseException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            reader.nextName();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                readPackage(reader, reader.nextName(), packages);
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+    }
+
+    private static void readPackage(JsonStreamReader reader, String id, List<PackageReference> packages) throws IOException, ManifestParseException {
+        String type = null;
+        String resolved = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("type".equals(name)) {
+                type = reader.nextScalar();
+            } else if ("resolved".equals(name)) {
+                resolved = reader.nextScalar();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if ("Direct".equals(type) && resolved != null) {
+            packages.add(new PackageReference(id, resolved));
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * History of the polls of a job, kept in a ring of fixed size records in the job directory.
+ * <p>
+ * The file holds the {@link #CAPACITY} latest polls: each poll overwrites the oldest record in place,
+ * so appending never reads or rewrites the rest of the file and the file never grows beyond its first round.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public final class PollHistory {
+
+    public static final String FILE_NAME = "nuget-poll-history";
+    static final int CAPACITY = 1000;
+    private static final int MAGIC = 0x4e475048;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 8;
+    static final int RECORD_SIZE = 8 + 8 + 4 * 7 + 1;
+
+    private PollHistory() {
+    }
+
+    /**
+     * Overwrites the oldest record of the file when it is full, replaces the file if it cannot be read.
+     */
+    public static synchronized void append(File file, Record record) throws IOException {
+        try (RandomAccessFile ring = new RandomAccessFile(file, "rw")) {
+            long written = readHeader(ring);
+            if (written < 0) {
+                ring.setLength(0);
+                written = 0;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+            buffer.putLong(record.timestamp);
+            buffer.putLong(record.durationMillis);
+            buffer.putInt(record.manifestsParsed);
+            buffer.putInt(record.packagesChecked);
+            buffer.putInt(record.lookups);
+            buffer.putInt(record.lookupFailures);
+            buffer.putInt(record.cacheHits);
+            buffer.putInt(record.cacheMisses);
+            buffer.putInt(record.updates);
+            buffer.put((byte) record.result.ordinal());
+            ring.seek(HEADER_SIZE + (written % CAPACITY) * RECORD_SIZE);
+            ring.write(buffer.array());
+            // the header is written last: a record cut short by a crash is never counted
+            ring.seek(0);
+            ring.writeInt(MAGIC);
+            ring.writeInt(FORMAT_VERSION);
+            ring.writeInt(CAPACITY);
+            ring.writeLong(written + 1);
+        }
+    }
+
+    /**
+     * @param from the first poll time included, in milliseconds since the epoch.
+     * @param to the first poll time excluded, in milliseconds since the epoch.
+     * @return the polls started in the time range, oldest first, none if the file does not exist or cannot be read.
+     */
+    public static synchronized List<Record> read(File file, long from, long to) throws IOException {
+        List<Record> records = new ArrayList<>();
+        if (!file.isFile()) {
+            return records;
+        }
+        byte[] content;
+        long written;
+        try (RandomAccessFile ring = new RandomAccessFile(file, "r")) {
+            written = readHeader(ring);
+            if (written <= 0) {
+                return records;
+            }
+            content = new byte[(int) Math.min(written, CAPACITY) * RECORD_SIZE];
+            ring.seek(HEADER_SIZE);
+            ring.readFully(content);
+        }
+        int count = (int) Math.min(written, CAPACITY);
+        int oldest = written > CAPACITY ? (int) (written % CAPACITY) : 0;
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(content));
+        Record[] ordered = new Record[count];
+        for (int idx = 0; idx < count; idx++) {
+            ordered[(idx - oldest + count) % count] = readRecord(in);
+        }
+        for (Record record : ordered) {
+            if (record.timestamp >= from && record.timestamp < to) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * @return the number of records ever appended, or -1 if the file is not a poll history.
+     */
+    private static long readHeader(RandomAccessFile ring) throws IOException {
+        if (ring.length() < HEADER_SIZE) {
+            return -1;
+        }
+        ring.seek(0);
+        if (ring.readInt() != MAGIC || ring.readInt() != FORMAT_VERSION || ring.readInt() != CAPACITY) {
+            return -1;
+        }
+        long written = ring.readLong();
+        if (written < 0 || ring.length() < HEADER_SIZE + Math.min(written, CAPACITY) * RECORD_SIZE) {
+            return -1;
+        }
+        return written;
+    }
+
+    private static Record readRecord(DataInputStream in) throws IOException {
+        Record record = new Record(in.readLong(), in.readLong());
+        record.manifestsParsed = in.readInt();
+        record.packagesChecked = in.readInt();
+        record.lookups = in.readInt();
+        record.lookupFailures = in.readInt();
+        record.cacheHits = in.readInt();
+        record.cacheMisses = in.readInt();
+        record.updates = in.readInt();
+        int result = in.readByte();
+        record.result = result >= 0 && result < Result.values().length ? Result.values()[result] : Result.FAILED;
+        return record;
+    }
+
+    public enum Result {
+        UNCHANGED,
+        UPDATED,
+        /**
+         * The workspace could not be checked.
+         */
+        FAILED
+    }
+
+    /**
+     * A single poll of the job.
+     */
+    public static final class Record {
+        private final long timestamp;
+        private final long durationMillis;
+        private int manifestsParsed;
+        private int packagesChecked;
+        private int lookups;
+        private int lookupFailures;
+        private int cacheHits;
+        private int cacheMisses;
+        private int updates;
+        private Result result = Result.FAILED;
+
+        Record(long timestamp, long durationMillis) {
+            this.timestamp = timestamp;
+            this.durationMillis = durationMillis;
+        }
+
+        /**
+         * @param timestamp the start of the poll, in milliseconds since the epoch.
+         */
+        public Record(long timestamp, long durationMillis, NugetCheckResult checkResult) {
+            this(timestamp, durationMillis);
+            packagesChecked = checkResult.getCheckedPackages();
+            updates = checkResult.getUpdates().size();
+            PollStatistics statistics = checkResult.getStatistics();
+            if (statistics == null) {
+                return;
+            }
+            result = checkResult.isUpdated() ? Result.UPDATED : Result.UNCHANGED;
+            manifestsParsed = (int) statistics.getManifestsParsed();
+            cacheHits = (int) statistics.getCacheHits();
+            cacheMisses = (int) statistics.getCacheMisses();
+            for (PollStatistics.FeedStatistics feed : statistics.getFeeds().values()) {
+                lookups += (int) feed.getLatency().getCount();
+                lookupFailures += (int) feed.getFailures();
+            }
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public int getManifestsParsed() {
+            return manifestsParsed;
+        }
+
+        public int getPackagesChecked() {
+            return packagesChecked;
+        }
+
+        public int getLookups() {
+            return lookups;
+        }
+
+        public int getLookupFailures() {
+            return lookupFailures;
+        }
+
+        public int getCacheHits() {
+            return cacheHits;
+        }
+
+        public int getCacheMisses() {
+            return cacheMisses;
+        }
+
+        public int getUpdates() {
+            return updates;
+        }
+
+        public Result getResult() {
+            return result;
+        }
+    }
+}
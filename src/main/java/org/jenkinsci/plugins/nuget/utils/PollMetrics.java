@@ -0,0 +1,188 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Metrics of the trigger polls of the controller, by job and by feed, since startup.
+ * <p>
+ * Each poll adds its duration and the {@link PollStatistics} measured where it ran.
+ * The metrics are shown by the NuGet poll metrics management page and exported in the Prometheus text format.
+ * <p>
+ * One instance is shared per JVM, see {@link #get()}.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public class PollMetrics {
+
+    private static final PollMetrics INSTANCE = new PollMetrics();
+
+    private final ConcurrentMap<String, JobMetrics> jobs = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, FeedMetrics> feeds = new ConcurrentHashMap<>();
+
+    PollMetrics() {
+    }
+
+    public static PollMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param pollNanos the duration of the poll, measured on the controller.
+     */
+    public void record(String job, long pollNanos, NugetCheckResult result) {
+        JobMetrics metrics = jobs.computeIfAbsent(job, key -> new JobMetrics());
+        metrics.polls.record(pollNanos);
+        if (result.isUpdated()) {
+            metrics.outdatedPolls.incrementAndGet();
+        }
+        PollStatistics statistics = result.getStatistics();
+        if (statistics == null) {
+            metrics.failedPolls.incrementAndGet();
+            return;
+        }
+        metrics.walk.record(statistics.getWalkNanos());
+        metrics.manifestsParsed.addAndGet(statistics.getManifestsParsed());
+        metrics.parseNanos.addAndGet(statistics.getParseNanos());
+        metrics.cacheHits.addAndGet(statistics.getCacheHits());
+        metrics.cacheMisses.addAndGet(statistics.getCacheMisses());
+        for (Map.Entry<String, PollStatistics.FeedStatistics> feed : statistics.getFeeds().entrySet()) {
+            FeedMetrics feedMetrics = feeds.computeIfAbsent(feed.getKey(), key -> new FeedMetrics());
+            feedMetrics.lookups.add(feed.getValue().getLatency());
+            feedMetrics.failures.addAndGet(feed.getValue().getFailures());
+            metrics.lookups.add(feed.getValue().getLatency());
+        }
+    }
+
+    public void remove(String job) {
+        jobs.remove(job);
+    }
+
+    public SortedMap<String, JobMetrics> getJobs() {
+        return Collections.unmodifiableSortedMap(new TreeMap<>(jobs));
+    }
+
+    public SortedMap<String, FeedMetrics> getFeeds() {
+        return Collections.unmodifiableSortedMap(new TreeMap<>(feeds));
+    }
+
+    /**
+     * Writes the metrics in the Prometheus text exposition format.
+     */
+    public void writePrometheus(PrintWriter writer) {
+        SortedMap<String, JobMetrics> jobMetrics = getJobs();
+        SortedMap<String, FeedMetrics> feedMetrics = getFeeds();
+        writeHistogram(writer, "nuget_poll_duration_seconds", "Duration of the trigger polls.", "job", jobMetrics, metrics -> metrics.polls);
+        writeCounter(writer, "nuget_poll_failures_total", "Trigger polls that failed to check the workspace.", "job", jobMetrics, metrics -> metrics.failedPolls.get());
+        writeCounter(writer, "nuget_poll_outdated_total", "Trigger polls that found outdated packages.", "job", jobMetrics, metrics -> metrics.outdatedPolls.get());
+        writeHistogram(writer, "nuget_poll_walk_seconds", "Time spent walking the workspace and reading its manifests.", "job", jobMetrics, metrics -> metrics.walk);
+        writeCounter(writer, "nuget_manifests_parsed_total", "Manifests parsed, unchanged manifests excluded.", "job", jobMetrics, metrics -> metrics.manifestsParsed.get());
+        writeCounter(writer, "nuget_manifest_parse_seconds_total", "Time spent parsing manifests.", "job", jobMetrics, metrics -> metrics.parseNanos.get() / 1e9);
+        writeCounter(writer, "nuget_version_cache_hits_total", "Latest versions taken from the shared cache.", "job", jobMetrics, metrics -> metrics.cacheHits.get());
+        writeCounter(writer, "nuget_version_cache_misses_total", "Latest versions missing from the shared cache.", "job", jobMetrics, metrics -> metrics.cacheMisses.get());
+        writeHistogram(writer, "nuget_job_lookup_duration_seconds", "Duration of the version lookups of each job.", "job", jobMetrics, metrics -> metrics.lookups);
+        writeHistogram(writer, "nuget_lookup_duration_seconds", "Duration of the version lookups against each feed.", "feed", feedMetrics, metrics -> metrics.lookups);
+        writeCounter(writer, "nuget_lookup_failures_total", "Version lookups that failed against each feed.", "feed", feedMetrics, metrics -> metrics.failures.get());
+        writer.flush();
+    }
+
+    static <T> void writeCounter(PrintWriter writer, String name, String help, String label, Map<String, T> metrics, Function<T, Number> value) {
+        writeValues(writer, "counter", name, help, label, metrics, value);
+    }
+
+    static <T> void writeGauge(PrintWriter writer, String name, String help, String label, Map<String, T> metrics, Function<T, Number> value) {
+        writeValues(writer, "gauge", name, help, label, metrics, value);
+    }
+
+    private static <T> void writeValues(PrintWriter writer, String type, String name, String help, String label, Map<String, T> metrics, Function<T, Number> value) {
+        writer.printf("# HELP %s %s%n# TYPE %s %s%n", name, help, name, type);
+        for (Map.Entry<String, T> entry : metrics.entrySet()) {
+            writer.printf("%s{%s=\"%s\"} %s%n", name, label, escape(entry.getKey()), value.apply(entry.getValue()));
+        }
+    }
+
+    static <T> void writeHistogram(PrintWriter writer, String name, String help, String label, Map<String, T> metrics, Function<T, LatencyHistogram> histogram) {
+        writer.printf("# HELP %s %s%n# TYPE %s histogram%n", name, help, name);
+        for (Map.Entry<String, T> entry : metrics.entrySet()) {
+            String labelValue = escape(entry.getKey());
+            LatencyHistogram values = histogram.apply(entry.getValue());
+            for (int bucket = 0; bucket < LatencyHistogram.BOUNDS_MILLIS.length; bucket++) {
+                writer.printf("%s_bucket{%s=\"%s\",le=\"%s\"} %d%n", name, label, labelValue,
+                        LatencyHistogram.BOUNDS_MILLIS[bucket] / 1000.0, values.getCumulativeCount(bucket));
+            }
+            long count = values.getCount();
+            writer.printf("%s_bucket{%s=\"%s\",le=\"+Inf\"} %d%n", name, label, labelValue, count);
+            writer.printf("%s_sum{%s=\"%s\"} %s%n", name, label, labelValue, values.getSumNanos() / 1e9);
+            writer.printf("%s_count{%s=\"%s\"} %d%n", name, label, labelValue, count);
+        }
+    }
+
+    static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    public static final class JobMetrics {
+        private final LatencyHistogram polls = new LatencyHistogram();
+        private final LatencyHistogram walk = new LatencyHistogram();
+        private final LatencyHistogram lookups = new LatencyHistogram();
+        private final AtomicLong failedPolls = new AtomicLong();
+        private final AtomicLong outdatedPolls = new AtomicLong();
+        private final AtomicLong manifestsParsed = new AtomicLong();
+        private final AtomicLong parseNanos = new AtomicLong();
+        private final AtomicLong cacheHits = new AtomicLong();
+        private final AtomicLong cacheMisses = new AtomicLong();
+
+        public LatencyHistogram getPolls() {
+            return polls;
+        }
+
+        public LatencyHistogram getWalk() {
+            return walk;
+        }
+
+        public LatencyHistogram getLookups() {
+            return lookups;
+        }
+
+        public long getFailedPolls() {
+            return failedPolls.get();
+        }
+
+        public long getOutdatedPolls() {
+            return outdatedPolls.get();
+        }
+
+        public long getManifestsParsed() {
+            return manifestsParsed.get();
+        }
+
+        /**
+         * @return the share of the latest versions taken from the shared cache, in percent, 0 if none was needed.
+         */
+        public long getCacheHitRatio() {
+            long hits = cacheHits.get();
+            long total = hits + cacheMisses.get();
+            return total == 0 ? 0 : hits * 100 / total;
+        }
+    }
+
+    public static final class FeedMetrics {
+        private final LatencyHistogram lookups = new LatencyHistogram();
+        private final AtomicLong failures = new AtomicLong();
+
+        public LatencyHistogram getLookups() {
+            return lookups;
+        }
+
+        public long getFailures() {
+            return failures.get();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+import java.io.PrintWriter;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the trigger polls on a bounded pool of their own, instead of the polling threads shared by every XTrigger trigger.
+ * <p>
+ * Polls wait in one queue per feed, and the queues take turns: polls against a slow feed only hold the threads
+ * while polls against other feeds are waiting for their turn. Within a queue, higher priority polls run first,
+ * then in submission order. A poll is dropped when a poll of the same job is already pending or running.
+ * <p>
+ * One instance is shared per JVM, see {@link #get()}.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public class PollQueue {
+
+    private static final Logger LOGGER = Logger.getLogger(PollQueue.class.getName());
+    private static final PollQueue INSTANCE = new PollQueue(1);
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, FeedQueue> feeds = new HashMap<>();
+    /**
+     * The feeds with pending polls, in the order of their next turn.
+     */
+    private final Deque<FeedQueue> turns = new ArrayDeque<>();
+    private final Set<String> jobs = new HashSet<>();
+    private long sequence;
+
+    PollQueue(int threads) {
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new NamingThreadFactory(new DaemonThreadFactory(), "NuGet trigger poll"));
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static PollQueue get() {
+        return INSTANCE;
+    }
+
+    public synchronized void setThreads(int threads) {
+        int size = Math.max(1, threads);
+        if (size > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(size);
+            executor.setCorePoolSize(size);
+        } else if (size < executor.getMaximumPoolSize()) {
+            executor.setCorePoolSize(size);
+            executor.setMaximumPoolSize(size);
+        }
+    }
+
+    /**
+     * @param job the full name of the job polling.
+     * @param feed the feed the poll looks its versions up against.
+     * @param priority the priority of the poll, higher first.
+     * @return false if the poll was dropped, a poll of the job being already pending or running.
+     */
+    public boolean submit(String job, String feed, int priority, Runnable poll) {
+        synchronized (this) {
+            FeedQueue queue = feeds.computeIfAbsent(feed, FeedQueue::new);
+            if (!jobs.add(job)) {
+                queue.dropped++;
+                return false;
+            }
+            queue.pending.add(new Poll(job, priority, sequence++, poll));
+            if (queue.pending.size() == 1) {
+                turns.addLast(queue);
+            }
+        }
+        // each task runs the next poll in turn, not necessarily this one
+        executor.execute(this::runNext);
+        return true;
+    }
+
+    private void runNext() {
+        FeedQueue queue;
+        Poll poll;
+        synchronized (this) {
+            queue = turns.pollFirst();
+            if (queue == null) {
+                return;
+            }
+            poll = queue.pending.poll();
+            if (!queue.pending.isEmpty()) {
+                turns.addLast(queue);
+            }
+            queue.running++;
+        }
+        queue.wait.record(System.nanoTime() - poll.submitted);
+        try {
+            poll.task.run();
+        } catch (RuntimeException ex) {
+            LOGGER.log(Level.WARNING, "NuGet trigger poll of " + poll.job + " failed", ex);
+        } finally {
+            synchronized (this) {
+                queue.running--;
+                jobs.remove(poll.job);
+            }
+        }
+    }
+
+    /**
+     * @return the poll queues, by feed.
+     */
+    public synchronized SortedMap<String, FeedQueue> getFeeds() {
+        return Collections.unmodifiableSortedMap(new TreeMap<>(feeds));
+    }
+
+    /**
+     * Writes the queue metrics in the Prometheus text exposition format.
+     */
+    public void writePrometheus(PrintWriter writer) {
+        SortedMap<String, FeedQueue> queues = getFeeds();
+        PollMetrics.writeGauge(writer, "nuget_poll_queue_depth", "Trigger polls waiting for a thread, by feed.", "feed", queues, FeedQueue::getDepth);
+        PollMetrics.writeGauge(writer, "nuget_poll_queue_running", "Trigger polls running, by feed.", "feed", queues, FeedQueue::getRunning);
+        PollMetrics.writeHistogram(writer, "nuget_poll_queue_wait_seconds", "Time trigger polls waited for a thread.", "feed", queues, FeedQueue::getWait);
+        PollMetrics.writeCounter(writer, "nuget_poll_dropped_total", "Trigger polls dropped, a poll of their job being pending or running.", "feed", queues, FeedQueue::getDropped);
+        writer.flush();
+    }
+
+    public final class FeedQueue {
+        private final String feed;
+        private final PriorityQueue<Poll> pending = new PriorityQueue<>();
+        private final LatencyHistogram wait = new LatencyHistogram();
+        private int running;
+        private long dropped;
+
+        private FeedQueue(String feed) {
+            this.feed = feed;
+        }
+
+        public String getFeed() {
+            return feed;
+        }
+
+        public int getDepth() {
+            synchronized (PollQueue.this) {
+                return pending.size();
+            }
+        }
+
+        public int getRunning() {
+            synchronized (PollQueue.this) {
+                return running;
+            }
+        }
+
+        public long getDropped() {
+            synchronized (PollQueue.this) {
+                return dropped;
+            }
+        }
+
+        /**
+         * @return how long the polls waited for a thread.
+         */
+        public LatencyHistogram getWait() {
+            return wait;
+        }
+    }
+
+    private static final class Poll implements Comparable<Poll> {
+        private final String job;
+        private final int priority;
+        private final long order;
+        private final long submitted = System.nanoTime();
+        private final Runnable task;
+
+        private Poll(String job, int priority, long order, Runnable task) {
+            this.job = job;
+            this.priority = priority;
+            this.order = order;
+            this.task = task;
+        }
+
+        @Override
+        public int compareTo(Poll other) {
+            if (priority != other.priority) {
+                return Integer.compare(other.priority, priority);
+            }
+            return Long.compare(order, other.order);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures of a single check of the workspace packages, taken where the check runs and returned with its result.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public class PollStatistics implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final AtomicLong walkNanos = new AtomicLong();
+    private final AtomicLong manifestsParsed = new AtomicLong();
+    private final AtomicLong parseNanos = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    private final ConcurrentHashMap<String, FeedStatistics> feeds = new ConcurrentHashMap<>();
+
+    void walked(long nanos) {
+        walkNanos.addAndGet(nanos);
+    }
+
+    void parsed(long nanos) {
+        manifestsParsed.incrementAndGet();
+        parseNanos.addAndGet(nanos);
+    }
+
+    void cacheHit() {
+        cacheHits.incrementAndGet();
+    }
+
+    void cacheMiss() {
+        cacheMisses.incrementAndGet();
+    }
+
+    void lookedUp(String feed, long nanos, boolean success) {
+        FeedStatistics statistics = feeds.computeIfAbsent(feed, key -> new FeedStatistics());
+        statistics.latency.record(nanos);
+        if (!success) {
+            statistics.failures.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return the time spent walking the workspace and reading its manifests, parsing included.
+     */
+    public long getWalkNanos() {
+        return walkNanos.get();
+    }
+
+    public long getManifestsParsed() {
+        return manifestsParsed.get();
+    }
+
+    public long getParseNanos() {
+        return parseNanos.get();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    /**
+     * @return the lookups of the check, by feed.
+     */
+    public Map<String, FeedStatistics> getFeeds() {
+        return Collections.unmodifiableMap(feeds);
+    }
+
+    public static final class FeedStatistics implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong failures = new AtomicLong();
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getFailures() {
+            return failures.get();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads the package items of MSBuild files: {@code PackageReference} in SDK style projects,
+ * {@code PackageVersion} and {@code GlobalPackageReference} in Directory.Packages.props for central package management.
+ * <p>
+ * The version is read from the {@code VersionOverride} or {@code Version} attribute, or from a {@code Version} child element.
+ * Items without version, or whose version uses an MSBuild property or floats, are ignored: the version they restore is not known.
+ * Ranges are kept, their lowest version being the one restored.
+ *
+ * @author Arnaud TAMAILLON
+ */
+class ProjectFileParser extends XmlManifestParser {
+
+    @Override
+    public boolean accepts(String fileName) {
+        String name = fileName.toLowerCase(Locale.ENGLISH);
+        return name.endsWith("proj") || name.endsWith(".props") || name.endsWith(".targets");
+    }
+
+    @Override
+    protected void startElement(XMLStreamReader reader, List<PackageReference> packages) throws XMLStreamException {
+        String element = reader.getLocalName();
+        if (!"PackageReference".equals(element) && !"PackageVersion".equals(element) && !"GlobalPackageReference".equals(element)) {
+            return;
+        }
+        String id = attribute(reader, "Include");
+        if (id == null) {
+            id = attribute(reader, "Update");
+        }
+        String version = attribute(reader, "VersionOverride");
+        if (version == null) {
+            version = attribute(reader, "Version");
+        }
+        if (version == null) {
+            version = readVersionElement(reader);
+        }
+        if (id != null && isPinned(version)) {
+            packages.add(new PackageReference(id, version));
+        }
+    }
+
+    private static String readVersionElement(XMLStreamReader reader) throws XMLStreamException {
+        String version = null;
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                if (depth == 1 && ("Version".equals(name) || "VersionOverride".equals(name))) {
+                    String text = reader.getElementText().trim();
+                    if (version == null || "VersionOverride".equals(name)) {
+                        version = text;
+                    }
+                } else {
+                    depth++;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        return version;
+    }
+
+    private static boolean isPinned(String version) {
+        return version != null && !version.isEmpty()
+                && version.indexOf('$') < 0 && version.indexOf('*') < 0;
+    }
+}
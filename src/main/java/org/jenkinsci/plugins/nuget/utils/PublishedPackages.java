@@ -0,0 +1,133 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tells which packages are already published on a feed, so that they are not uploaded again.
+ * <p>
+ * The feed is queried once per distinct package id, for all its versions at the same time.
+ * Packages known to be published, either found on the feed or pushed, are remembered by the JVM
+ * and not queried again by the next publications to the same feed. They are remembered for an hour,
+ * as a package may be deleted from the feed, and only the most recently used ones are kept.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public class PublishedPackages {
+
+    private static final int MAX_KNOWN_PUBLISHED = 10000;
+    private static final long KNOWN_PUBLISHED_TTL = TimeUnit.HOURS.toMillis(1);
+    // expiry time of each package known to be published
+    private static final Map<String, Long> KNOWN_PUBLISHED = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > MAX_KNOWN_PUBLISHED;
+        }
+    };
+
+    private final NugetFeedClient client;
+    private final String feed;
+
+    /**
+     * @param source the URL packages are pushed to.
+     */
+    public PublishedPackages(NugetFeedClient client, String source) {
+        this.client = client;
+        this.feed = getFeed(source);
+    }
+
+    /**
+     * @return the packages already on the feed.
+     */
+    public Set<PackageReference> findPublished(Collection<PackageReference> packages) throws IOException {
+        Map<String, Set<String>> unknownIds = new HashMap<>();
+        for (PackageReference reference : packages) {
+            if (!isKnownPublished(key(reference))) {
+                unknownIds.computeIfAbsent(reference.getId().toLowerCase(Locale.ENGLISH), id -> new LinkedHashSet<>()).add(normalize(reference.getVersion()));
+            }
+        }
+        for (Map.Entry<String, Set<String>> unknown : unknownIds.entrySet()) {
+            Set<String> versions = unknown.getValue();
+            List<String> feedVersions = client.getVersions(feed, unknown.getKey());
+            for (String feedVersion : feedVersions) {
+                String version = normalize(feedVersion);
+                if (versions.contains(version)) {
+                    knownPublished(key(unknown.getKey(), version));
+                }
+            }
+        }
+        Set<PackageReference> published = new HashSet<>();
+        for (PackageReference reference : packages) {
+            if (isKnownPublished(key(reference))) {
+                published.add(reference);
+            }
+        }
+        return published;
+    }
+
+    public void published(PackageReference reference) {
+        knownPublished(key(reference));
+    }
+
+    private static boolean isKnownPublished(String key) {
+        synchronized (KNOWN_PUBLISHED) {
+            Long expiresAt = KNOWN_PUBLISHED.get(key);
+            if (expiresAt == null) {
+                return false;
+            }
+            if (expiresAt - now() <= 0) {
+                KNOWN_PUBLISHED.remove(key);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private static void knownPublished(String key) {
+        synchronized (KNOWN_PUBLISHED) {
+            KNOWN_PUBLISHED.put(key, now() + KNOWN_PUBLISHED_TTL);
+        }
+    }
+
+    private static long now() {
+        return System.nanoTime() / 1000000L;
+    }
+
+    String getFeed() {
+        return feed;
+    }
+
+    /**
+     * @return the feed to query for a push URL: the V2 push endpoint is not a feed, its parent is.
+     */
+    static String getFeed(String source) {
+        String feed = source.endsWith("/") ? source.substring(0, source.length() - 1) : source;
+        String pushPath = NugetHttpPushCommand.PUSH_PATH;
+        if (feed.endsWith(pushPath)) {
+            feed = feed.substring(0, feed.length() - "/package".length());
+        }
+        return feed;
+    }
+
+    private String key(PackageReference reference) {
+        return key(reference.getId().toLowerCase(Locale.ENGLISH), normalize(reference.getVersion()));
+    }
+
+    private String key(String lowerId, String normalizedVersion) {
+        return feed + '\n' + lowerId + '\n' + normalizedVersion;
+    }
+
+    private static String normalize(String version) {
+        NugetVersion parsed = NugetVersion.tryParse(version);
+        return parsed == null ? version.toLowerCase(Locale.ENGLISH) : parsed.toString().toLowerCase(Locale.ENGLISH);
+    }
+}
@@ -0,0 +1,25 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+/**
+ * Read access to a cache of latest package versions.
+ * <p>
+ * This is the only view of the controller-wide cache exported to agents: they can reuse its versions,
+ * while the versions they look up are only kept by their own node cache.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public interface ReadOnlyPackageVersionCache {
+
+    /**
+     * @return the cached latest version and its remaining time to live, or null if none is cached or the entry expired.
+     */
+    CachedPackageVersion getCached(PackageVersionKey key);
+
+    /**
+     * @return the cached latest version, or null if none is cached or the entry expired.
+     */
+    default String get(PackageVersionKey key) {
+        CachedPackageVersion cached = getCached(key);
+        return cached == null ? null : cached.getVersion();
+    }
+}
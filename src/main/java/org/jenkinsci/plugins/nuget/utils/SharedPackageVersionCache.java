@@ -0,0 +1,112 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Controller-wide latest version cache shared by every NuGet trigger.
+ * <p>
+ * Entries expire after a configurable time to live, and the least recently used entries
+ * are evicted once the size limit is reached. Only found versions are cached, so a feed
+ * failure is never remembered as a missing package.
+ *
+ * @author Arnaud TAMAILLON
+ */
+public class SharedPackageVersionCache implements PackageVersionCache {
+
+    private final Map<PackageVersionKey, Entry> entries = new LinkedHashMap<PackageVersionKey, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PackageVersionKey, Entry> eldest) {
+            if (size() > maxSize) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long ttlMillis;
+    private int maxSize;
+
+    public SharedPackageVersionCache(long ttl, TimeUnit unit, int maxSize) {
+        configure(ttl, unit, maxSize);
+    }
+
+    public final synchronized void configure(long ttl, TimeUnit unit, int maxSize) {
+        this.ttlMillis = unit.toMillis(Math.max(0, ttl));
+        this.maxSize = Math.max(0, maxSize);
+        if (!isEnabled()) {
+            entries.clear();
+            return;
+        }
+        while (entries.size() > this.maxSize) {
+            entries.remove(entries.keySet().iterator().next());
+            evictions.incrementAndGet();
+        }
+    }
+
+    @Override
+    public synchronized CachedPackageVersion getCached(PackageVersionKey key) {
+        Entry entry = isEnabled() ? entries.get(key) : null;
+        if (entry != null && entry.expiresAt - now() <= 0) {
+            entries.remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return new CachedPackageVersion(entry.version, entry.expiresAt - now());
+    }
+
+    @Override
+    public synchronized void put(PackageVersionKey key, String version) {
+        if (version == null || !isEnabled()) {
+            return;
+        }
+        entries.put(key, new Entry(version, now() + ttlMillis));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private boolean isEnabled() {
+        return ttlMillis > 0 && maxSize > 0;
+    }
+
+    long now() {
+        return System.nanoTime() / 1000000L;
+    }
+
+    private static final class Entry {
+        private final String version;
+        private final long expiresAt;
+
+        private Entry(String version, long expiresAt) {
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
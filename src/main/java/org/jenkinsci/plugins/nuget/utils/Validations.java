@@ -22,4 +22,26 @@ public class Validations {
             return FormValidation.ok();
         } 
     }
+
+    public static FormValidation positive(String value) {
+        try {
+            if (Integer.parseInt(StringUtils.trim(value)) > 0) {
+                return FormValidation.ok();
+            }
+        } catch (NumberFormatException ex) {
+            // reported below
+        }
+        return FormValidation.error(Messages.NugetGlobalConfiguration_Positive());
+    }
+
+    public static FormValidation positiveOrZero(String value) {
+        try {
+            if (Integer.parseInt(StringUtils.trim(value)) >= 0) {
+                return FormValidation.ok();
+            }
+        } catch (NumberFormatException ex) {
+            // reported below
+        }
+        return FormValidation.error(Messages.NugetGlobalConfiguration_PositiveOrZero());
+    }
 }
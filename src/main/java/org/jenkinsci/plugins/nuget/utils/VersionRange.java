@@ -0,0 +1,159 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import java.io.Serializable;
+
+/**
+ * A range of versions, as written in NuGet manifests.
+ * <ul>
+ *     <li>{@code 1.0}: 1.0 or higher</li>
+ *     <li>{@code [1.0]}: exactly 1.0</li>
+ *     <li>{@code [1.0,2.0)}, {@code (,1.0]}, {@code [1.0,)}: bounded ranges, brackets being inclusive and parentheses exclusive</li>
+ *     <li>{@code 1.*}, {@code 1.2.*}, {@code 1.0.0-*}, {@code *}: floating versions, restoring the highest matching version</li>
+ * </ul>
+ *
+ * @author Arnaud TAMAILLON
+ */
+public final class VersionRange implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final NugetVersion min;
+    private final boolean minInclusive;
+    private final NugetVersion max;
+    private final boolean maxInclusive;
+    private final boolean floating;
+
+    VersionRange(NugetVersion min, boolean minInclusive, NugetVersion max, boolean maxInclusive, boolean floating) {
+        this.min = min;
+        this.minInclusive = minInclusive;
+        this.max = max;
+        this.maxInclusive = maxInclusive;
+        this.floating = floating;
+    }
+
+    /**
+     * @return the range, or null if the value is not a valid NuGet version range.
+     */
+    public static VersionRange tryParse(String value) {
+        if (value == null) {
+            return null;
+        }
+        String range = value.trim();
+        if (range.isEmpty()) {
+            return null;
+        }
+        if (range.endsWith("*")) {
+            return parseFloating(range);
+        }
+        char first = range.charAt(0);
+        if (first != '[' && first != '(') {
+            NugetVersion version = NugetVersion.tryParse(range);
+            return version == null ? null : new VersionRange(version, true, null, false, false);
+        }
+        char last = range.charAt(range.length() - 1);
+        if (range.length() < 3 || (last != ']' && last != ')')) {
+            return null;
+        }
+        boolean minInclusive = first == '[';
+        boolean maxInclusive = last == ']';
+        int comma = range.indexOf(',');
+        if (comma < 0) {
+            NugetVersion version = NugetVersion.tryParse(range, 1, range.length() - 1);
+            if (version == null || !minInclusive || !maxInclusive) {
+                return null;
+            }
+            return new VersionRange(version, true, version, true, false);
+        }
+        NugetVersion min = null;
+        NugetVersion max = null;
+        if (!range.substring(1, comma).trim().isEmpty()) {
+            min = NugetVersion.tryParse(range, 1, comma);
+            if (min == null) {
+                return null;
+            }
+        }
+        if (!range.substring(comma + 1, range.length() - 1).trim().isEmpty()) {
+            max = NugetVersion.tryParse(range, comma + 1, range.length() - 1);
+            if (max == null) {
+                return null;
+            }
+        }
+        if (min == null && max == null) {
+            return null;
+        }
+        return new VersionRange(min, minInclusive && min != null, max, maxInclusive && max != null, false);
+    }
+
+    private static VersionRange parseFloating(String range) {
+        if (range.equals("*")) {
+            return new VersionRange(new NugetVersion(0, 0, 0, 0, null), true, null, false, true);
+        }
+        int dash = range.indexOf('-');
+        if (dash >= 0) {
+            // 1.0.0-* or 1.0.0-beta*: the prereleases of 1.0.0 starting with the label, then 1.0.0 itself
+            NugetVersion release = NugetVersion.tryParse(range.substring(0, dash));
+            if (release == null || release.isPrerelease() || range.indexOf('*') != range.length() - 1) {
+                return null;
+            }
+            String label = range.substring(dash + 1, range.length() - 1);
+            NugetVersion min = new NugetVersion(release.getMajor(), release.getMinor(), release.getPatch(), release.getRevision(),
+                    label.isEmpty() ? "0" : label);
+            return new VersionRange(min, true, release, true, true);
+        }
+        if (!range.endsWith(".*")) {
+            return null;
+        }
+        NugetVersion prefix = NugetVersion.tryParse(range.substring(0, range.length() - 2));
+        if (prefix == null || prefix.isPrerelease()) {
+            return null;
+        }
+        int parts = 1;
+        for (int idx = 0; idx < range.length() - 2; idx++) {
+            if (range.charAt(idx) == '.') {
+                parts++;
+            }
+        }
+        // the upper bound is the lowest prerelease of the next version, which excludes that version and its prereleases
+        NugetVersion max;
+        switch (parts) {
+            case 1: max = new NugetVersion(prefix.getMajor() + 1, 0, 0, 0, "0"); break;
+            case 2: max = new NugetVersion(prefix.getMajor(), prefix.getMinor() + 1, 0, 0, "0"); break;
+            case 3: max = new NugetVersion(prefix.getMajor(), prefix.getMinor(), prefix.getPatch() + 1, 0, "0"); break;
+            default: return null;
+        }
+        return new VersionRange(prefix, true, max, false, true);
+    }
+
+    /**
+     * @return the lowest version of the range, or null if it has no lower bound.
+     */
+    public NugetVersion getMin() {
+        return min;
+    }
+
+    public NugetVersion getMax() {
+        return max;
+    }
+
+    /**
+     * @return true for floating versions, which restore the highest matching version instead of the lowest.
+     */
+    public boolean isFloating() {
+        return floating;
+    }
+
+    public boolean satisfies(NugetVersion version) {
+        if (min != null) {
+            int result = version.compareTo(min);
+            if (result < 0 || (result == 0 && !minInclusive)) {
+                return false;
+            }
+        }
+        if (max != null) {
+            int result = version.compareTo(max);
+            if (result > 0 || (result == 0 && !maxInclusive)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,67 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base of the XML manifest parsers, streaming the document with StAX instead of loading it.
+ * Documents declaring a DOCTYPE are rejected.
+ *
+ * @author Arnaud TAMAILLON
+ */
+abstract class XmlManifestParser implements ManifestParser {
+
+    static final String DOCTYPE_FORBIDDEN = "DOCTYPE is not allowed in NuGet manifests";
+
+    private final XMLInputFactory factory = NugetXml.newInputFactory();
+
+    @Override
+    public List<PackageReference> parse(Path file) throws IOException, ManifestParseException {
+        List<PackageReference> packages = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(file)) {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.DTD) {
+                        throw new ManifestParseException(DOCTYPE_FORBIDDEN);
+                    }
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        startElement(reader, packages);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException ex) {
+            throw new ManifestParseException(ex.getMessage(), ex);
+        }
+        return packages;
+    }
+
+    /**
+     * Called for each element of the document, the reader being positioned on its start.
+     */
+    protected abstract void startElement(XMLStreamReader reader, List<PackageReference> packages) throws XMLStreamException;
+
+    /**
+     * @return the value of the attribute, matched without case, or null if missing or blank.
+     */
+    static String attribute(XMLStreamReader reader, String name) {
+        for (int idx = 0; idx < reader.getAttributeCount(); idx++) {
+            if (name.equalsIgnoreCase(reader.getAttributeLocalName(idx))) {
+                String value = reader.getAttributeValue(idx).trim();
+                return value.isEmpty() ? null : value;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,36 @@
+package org.jenkinsci.plugins.nuget;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the JMH benchmarks of the plugin, with {@code mvn test -Dbenchmark}: the {@code benchmark} profile
+ * of the pom then runs this class only. It is skipped by any other test run.
+ * The report is written to {@code target/jmh-report.json}.
+ */
+public class JmhBenchmarks {
+
+    @Test
+    public void runJmhBenchmarks() throws Exception {
+        Assume.assumeTrue(Boolean.getBoolean("benchmark"));
+        Options options = new OptionsBuilder()
+                .include(getClass().getPackage().getName() + ".*Benchmark")
+                .mode(Mode.AverageTime)
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-report.json")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,58 @@
+package org.jenkinsci.plugins.nuget.triggers.logs;
+
+import hudson.util.StreamTaskListener;
+import org.jenkinsci.lib.xtrigger.XTriggerLog;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TriggerLogBufferTest {
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    TriggerLogBuffer buffer = new TriggerLogBuffer(new XTriggerLog(new StreamTaskListener(output, StandardCharsets.UTF_8)));
+
+    @Test
+    public void shouldWriteFormattedLinesInOrderOnFlush() {
+        buffer.add(false, "Package %s v%s should update to v%s.", "NUnit", "3.0.0", "3.1.0");
+        buffer.add(true, "Failed: 100%");
+        buffer.add(false, "Done.");
+        buffer.flush();
+
+        assertEquals(Arrays.asList("Package NUnit v3.0.0 should update to v3.1.0.", "[ERROR] - Failed: 100%", "Done."), lines());
+    }
+
+    @Test
+    public void shouldWritePendingLinesWithoutFlush() throws InterruptedException {
+        buffer.add(false, "Checking %d known manifests without walking the workspace.", 2);
+
+        for (int idx = 0; idx < 50 && output.size() == 0; idx++) {
+            Thread.sleep(TriggerLogBuffer.WRITE_INTERVAL_MILLIS);
+        }
+        assertEquals(Arrays.asList("Checking 2 known manifests without walking the workspace."), lines());
+    }
+
+    @Test
+    public void shouldOnlyWriteErrorsBeyondTheSizeOfAPoll() {
+        char[] large = new char[(int) TriggerLogBuffer.MAX_POLL_LOG_SIZE];
+        Arrays.fill(large, 'a');
+        buffer.add(false, new String(large));
+        buffer.add(false, "dropped");
+        buffer.add(true, "kept");
+        buffer.flush();
+
+        List<String> lines = lines();
+        assertEquals(3, lines.size());
+        assertEquals("[ERROR] - kept", lines.get(1));
+        assertTrue(lines.get(2).startsWith("1 lines not logged"));
+    }
+
+    private List<String> lines() {
+        return Arrays.asList(new String(output.toByteArray(), StandardCharsets.UTF_8).split(System.lineSeparator()));
+    }
+}
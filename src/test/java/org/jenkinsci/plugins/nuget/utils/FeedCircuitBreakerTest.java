@@ -0,0 +1,87 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FeedCircuitBreakerTest {
+
+    private static final String FEED = "https://feed/v3/index.json";
+
+    long now = 1000000;
+    FeedCircuitBreaker breaker = new FeedCircuitBreaker(() -> now);
+
+    @Test
+    public void shouldOpenAfterConsecutiveFailures() {
+        for (int idx = 0; idx < FeedCircuitBreaker.FAILURE_THRESHOLD; idx++) {
+            assertTrue(breaker.allowRequest(FEED));
+            breaker.recordFailure(FEED);
+        }
+        assertTrue(breaker.isOpen(FEED));
+        assertFalse(breaker.allowRequest(FEED));
+        assertEquals(now + FeedCircuitBreaker.MIN_OPEN_MILLIS, breaker.getRetryTime(FEED));
+        assertTrue(breaker.allowRequest("https://other/v3/index.json"));
+    }
+
+    @Test
+    public void shouldNotOpenWhenFailuresAreInterleavedWithSuccesses() {
+        for (int idx = 0; idx < FeedCircuitBreaker.FAILURE_THRESHOLD * 2; idx++) {
+            breaker.recordFailure(FEED);
+            breaker.recordSuccess(FEED);
+        }
+        assertFalse(breaker.isOpen(FEED));
+    }
+
+    @Test
+    public void shouldLetSingleProbeThroughOnceOpenPeriodEnds() {
+        open();
+        now += FeedCircuitBreaker.MIN_OPEN_MILLIS;
+
+        assertTrue(breaker.allowRequest(FEED));
+        assertFalse(breaker.allowRequest(FEED));
+
+        breaker.recordSuccess(FEED);
+        assertFalse(breaker.isOpen(FEED));
+        assertTrue(breaker.allowRequest(FEED));
+    }
+
+    @Test
+    public void shouldDoubleOpenPeriodWhenProbeFails() {
+        open();
+        now += FeedCircuitBreaker.MIN_OPEN_MILLIS;
+        assertTrue(breaker.allowRequest(FEED));
+
+        breaker.recordFailure(FEED);
+
+        assertEquals(now + 2 * FeedCircuitBreaker.MIN_OPEN_MILLIS, breaker.getRetryTime(FEED));
+        assertFalse(breaker.allowRequest(FEED));
+    }
+
+    @Test
+    public void shouldReleaseCancelledProbe() {
+        open();
+        now += FeedCircuitBreaker.MIN_OPEN_MILLIS;
+        assertTrue(breaker.allowRequest(FEED));
+
+        breaker.cancel(FEED);
+
+        assertTrue(breaker.allowRequest(FEED));
+    }
+
+    @Test
+    public void shouldBoundBackoff() {
+        for (int attempt = 1; attempt < 40; attempt++) {
+            long delay = FeedCircuitBreaker.getBackoffMillis(attempt);
+            assertTrue(delay >= 0 && delay <= FeedCircuitBreaker.MAX_BACKOFF_MILLIS);
+        }
+        assertTrue(FeedCircuitBreaker.getBackoffMillis(1) <= FeedCircuitBreaker.MIN_BACKOFF_MILLIS);
+    }
+
+    private void open() {
+        for (int idx = 0; idx < FeedCircuitBreaker.FAILURE_THRESHOLD; idx++) {
+            breaker.recordFailure(FEED);
+        }
+    }
+}
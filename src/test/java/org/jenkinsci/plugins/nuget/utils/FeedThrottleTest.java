@@ -0,0 +1,40 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FeedThrottleTest {
+
+    private static final String FEED = "https://feed/v3/index.json";
+
+    @Test
+    public void shouldShareThrottleAcrossPolls() {
+        FeedThrottle throttle = FeedThrottle.get(2);
+        assertSame(throttle, FeedThrottle.get(2));
+        assertNotSame(throttle, FeedThrottle.get(3));
+    }
+
+    @Test
+    public void shouldLimitLookupsPerFeed() throws InterruptedException {
+        FeedThrottle throttle = new FeedThrottle(1);
+        throttle.acquire(FEED);
+        throttle.acquire("https://other/v3/index.json");
+        Thread waiting = new Thread(() -> {
+            try {
+                throttle.acquire(FEED);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiting.start();
+        waiting.join(200);
+        assertTrue(waiting.isAlive());
+        throttle.release(FEED);
+        waiting.join(5000);
+        assertFalse(waiting.isAlive());
+    }
+}
@@ -0,0 +1,66 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ManifestParsersTest {
+
+    private final ManifestParsers parsers = ManifestParsers.createDefault();
+
+    @Test
+    public void shouldFindParserByFileName() {
+        assertTrue(parsers.find("packages.config") instanceof PackagesConfigParser);
+        assertTrue(parsers.find("App.csproj") instanceof ProjectFileParser);
+        assertTrue(parsers.find("Lib.fsproj") instanceof ProjectFileParser);
+        assertTrue(parsers.find("Directory.Packages.props") instanceof ProjectFileParser);
+        assertTrue(parsers.find("packages.lock.json") instanceof PackagesLockFileParser);
+        assertNull(parsers.find("README.md"));
+    }
+
+    @Test
+    public void shouldReadPinnedPackageReferences() throws Exception {
+        assertEquals(
+                Arrays.asList("Newtonsoft.Json 13.0.1", "NUnit 3.13.2", "Polly 7.2.3"),
+                parse("App.csproj"));
+    }
+
+    @Test
+    public void shouldReadCentralPackageVersions() throws Exception {
+        assertEquals(
+                Arrays.asList("Dapper 2.0.123", "Polly 7.2.2", "Nerdbank.GitVersioning 3.5.109"),
+                parse("Directory.Packages.props"));
+    }
+
+    @Test
+    public void shouldReadDirectDependenciesOfLockFile() throws Exception {
+        assertEquals(
+                Arrays.asList("Newtonsoft.Json 13.0.1", "NUnit 3.13.2"),
+                parse("packages.lock.json"));
+    }
+
+    @Test
+    public void shouldReuseParserAcrossFiles() throws Exception {
+        assertEquals(parse("packages.lock.json"), parse("packages.lock.json"));
+        assertEquals(parse("App.csproj"), parse("App.csproj"));
+    }
+
+    private List<String> parse(String name) throws Exception {
+        URL url = getClass().getClassLoader().getResource("ManifestParsersTest/" + name);
+        Path file = new File(url.toURI()).toPath();
+        List<String> packages = new ArrayList<>();
+        for (PackageReference reference : parsers.find(name).parse(file)) {
+            packages.add(reference.getId() + " " + reference.getVersion());
+        }
+        return packages;
+    }
+}
@@ -0,0 +1,67 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import hudson.FilePath;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ManifestSnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldCopyManifestsOutsideOfExcludedDirectories() throws Exception {
+        File workspace = folder.newFolder("workspace");
+        write(workspace, "packages.config", "<packages/>");
+        write(workspace, "src/App/App.csproj", "<Project/>");
+        write(workspace, "src/App/bin/Debug/Copy.csproj", "<Project/>");
+        write(workspace, "README.md", "readme");
+        File snapshot = new File(folder.getRoot(), "snapshot");
+
+        assertEquals(2, ManifestSnapshot.take(new FilePath(workspace), snapshot, null, null));
+        assertTrue(new File(snapshot, "packages.config").isFile());
+        assertEquals("<Project/>", read(new File(snapshot, "src/App/App.csproj")));
+        assertFalse(new File(snapshot, "src/App/bin").exists());
+        assertFalse(new File(snapshot, "README.md").exists());
+    }
+
+    @Test
+    public void shouldOnlyRewriteChangedManifests() throws Exception {
+        File workspace = folder.newFolder("workspace");
+        write(workspace, "packages.config", "<packages/>");
+        write(workspace, "src/App/App.csproj", "<Project/>");
+        write(workspace, "src/Old/Old.csproj", "<Project/>");
+        File snapshot = new File(folder.getRoot(), "snapshot");
+        ManifestSnapshot.take(new FilePath(workspace), snapshot, null, null);
+        File unchanged = new File(snapshot, "src/App/App.csproj");
+        assertTrue(unchanged.setLastModified(1000000000000L));
+
+        write(workspace, "packages.config", "<packages><package id=\"Serilog\" version=\"2.10.0\" /></packages>");
+        Files.delete(new File(workspace, "src/Old/Old.csproj").toPath());
+        ManifestSnapshot.take(new FilePath(workspace), snapshot, null, null);
+
+        assertTrue(read(new File(snapshot, "packages.config")).contains("Serilog"));
+        assertEquals(1000000000000L, unchanged.lastModified());
+        assertFalse(new File(snapshot, "src/Old/Old.csproj").exists());
+    }
+
+    private static void write(File root, String path, String content) throws IOException {
+        File file = new File(root, path);
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,103 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class NodePackageVersionCacheTest {
+
+    long now;
+    NodePackageVersionCache cache;
+    SharedPackageVersionCache controllerCache;
+
+    @Before
+    public void setUp() {
+        now = 0;
+        cache = new NodePackageVersionCache() {
+            @Override
+            long now() {
+                return now;
+            }
+        };
+        cache.configure(5, TimeUnit.MINUTES, 10);
+        controllerCache = new SharedPackageVersionCache(5, TimeUnit.MINUTES, 10);
+    }
+
+    @Test
+    public void shouldOnlyAskTheControllerOnce() {
+        controllerCache.put(key("Newtonsoft.Json"), "12.0.3");
+        PackageVersionCache layered = cache.over(controllerCache);
+
+        assertEquals("12.0.3", layered.get(key("Newtonsoft.Json")));
+        assertEquals("12.0.3", layered.get(key("newtonsoft.json")));
+        assertEquals(1, controllerCache.getHits());
+    }
+
+    @Test
+    public void shouldOnlyStoreLookedUpVersionsInTheNodeCache() {
+        PackageVersionCache layered = cache.over(controllerCache);
+        assertNull(layered.get(key("Serilog")));
+
+        layered.put(key("Serilog"), "2.10.0");
+
+        assertEquals("2.10.0", cache.get(key("Serilog")));
+        assertNull(controllerCache.get(key("Serilog")));
+    }
+
+    @Test
+    public void shouldExpireControllerVersionsWithTheControllerEntry() {
+        controllerCache = new SharedPackageVersionCache(5, TimeUnit.MINUTES, 10) {
+            @Override
+            long now() {
+                return now;
+            }
+        };
+        controllerCache.put(key("Moq"), "4.16.0");
+        now += TimeUnit.MINUTES.toMillis(4);
+        PackageVersionCache layered = cache.over(controllerCache);
+
+        assertEquals("4.16.0", layered.get(key("Moq")));
+        now += TimeUnit.MINUTES.toMillis(1);
+        assertNull(cache.get(key("Moq")));
+    }
+
+    @Test
+    public void shouldExpireEntries() {
+        cache.put(key("Serilog"), "2.10.0");
+        now += TimeUnit.MINUTES.toMillis(5);
+
+        assertNull(cache.get(key("Serilog")));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldEvictEntriesExpiringFirst() {
+        for (int idx = 0; idx < 11; idx++) {
+            cache.put(key("P" + idx), "1.0.0");
+            now++;
+        }
+
+        assertEquals(9, cache.size());
+        assertNull(cache.get(key("P0")));
+        assertNull(cache.get(key("P1")));
+        assertEquals("1.0.0", cache.get(key("P10")));
+    }
+
+    @Test
+    public void shouldBeDisabledWithoutTimeToLive() {
+        cache.put(key("Moq"), "4.16.0");
+        cache.configure(0, TimeUnit.MINUTES, 10);
+
+        cache.put(key("Moq"), "4.16.0");
+        assertNull(cache.get(key("Moq")));
+        assertEquals(0, cache.size());
+    }
+
+    private static PackageVersionKey key(String id) {
+        return new PackageVersionKey(PackageVersionKey.DEFAULT_FEED, id, false);
+    }
+}
@@ -0,0 +1,108 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class NugetCatalogReaderTest {
+
+    HttpServer server;
+    String root;
+    NugetCatalogReader reader;
+    final AtomicInteger pageReads = new AtomicInteger();
+    final AtomicInteger pageRevalidations = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        root = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+        server.createContext("/v3/index.json", exchange -> respond(exchange, 200,
+            "{\"version\":\"3.0.0\",\"resources\":[{\"@id\":\"" + root + "/flat/\",\"@type\":\"PackageBaseAddress/3.0.0\"},"
+                + "{\"@id\":\"" + root + "/catalog/index.json\",\"@type\":\"Catalog/3.0.0\"}]}"));
+        server.createContext("/catalog/index.json", exchange -> respond(exchange, 200,
+            "{\"commitId\":\"c2\",\"commitTimeStamp\":\"2021-03-02T10:00:00.1234567Z\",\"count\":2,\"items\":["
+                + "{\"@id\":\"" + root + "/catalog/page0.json\",\"@type\":\"CatalogPage\",\"commitTimeStamp\":\"2021-03-01T10:00:00Z\",\"count\":1},"
+                + "{\"@id\":\"" + root + "/catalog/page1.json\",\"@type\":\"CatalogPage\",\"commitTimeStamp\":\"2021-03-02T10:00:00.1234567Z\",\"count\":3}]}"));
+        server.createContext("/catalog/page", exchange -> {
+            pageReads.incrementAndGet();
+            if (exchange.getRequestHeaders().containsKey("If-None-Match")) {
+                pageRevalidations.incrementAndGet();
+            }
+            exchange.getResponseHeaders().add("ETag", "\"page\"");
+            if (exchange.getRequestURI().getPath().endsWith("page1.json")) {
+                respond(exchange, 200, "{\"@id\":\"page1\",\"items\":["
+                    + "{\"@id\":\"a\",\"@type\":\"nuget:PackageDetails\",\"commitTimeStamp\":\"2021-03-01T12:00:00Z\",\"nuget:id\":\"Old.Package\",\"nuget:version\":\"1.0.0\"},"
+                    + "{\"@id\":\"b\",\"@type\":\"nuget:PackageDetails\",\"nuget:id\":\"Newtonsoft.Json\",\"nuget:version\":\"13.0.1\",\"commitTimeStamp\":\"2021-03-02T09:00:00Z\"},"
+                    + "{\"@id\":\"c\",\"@type\":\"nuget:PackageDelete\",\"commitTimeStamp\":\"2021-03-02T10:00:00.1234567Z\",\"nuget:id\":\"Serilog\",\"nuget:version\":\"2.0.0\"}]}");
+            } else {
+                respond(exchange, 200, "{\"items\":[]}");
+            }
+        });
+        server.createContext("/v2", exchange -> respond(exchange, 200,
+            "<?xml version=\"1.0\" encoding=\"utf-8\"?><service xmlns=\"http://www.w3.org/2007/app\"/>"));
+        server.start();
+        reader = new NugetCatalogReader(new NugetFeedClient());
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldOnlyReadCursorOnFirstRead() throws IOException {
+        NugetCatalogReader.Changes changes = reader.readChanges(root + "/v3/index.json", null);
+
+        assertEquals(Instant.parse("2021-03-02T10:00:00.1234567Z"), changes.getCursor());
+        assertTrue(changes.getIds().isEmpty());
+        assertEquals(0, pageReads.get());
+    }
+
+    @Test
+    public void shouldReadPackagesChangedSinceCursor() throws IOException {
+        NugetCatalogReader.Changes changes = reader.readChanges(root + "/v3/index.json", Instant.parse("2021-03-01T12:00:00Z"));
+
+        assertEquals(new HashSet<>(Arrays.asList("newtonsoft.json", "serilog")), changes.getIds());
+        assertEquals(Instant.parse("2021-03-02T10:00:00.1234567Z"), changes.getCursor());
+        assertEquals(1, pageReads.get());
+    }
+
+    @Test
+    public void shouldNotCacheCatalogPages() throws IOException {
+        Instant cursor = Instant.parse("2021-03-01T12:00:00Z");
+        reader.readChanges(root + "/v3/index.json", cursor);
+        reader.readChanges(root + "/v3/index.json", cursor);
+
+        assertEquals(2, pageReads.get());
+        assertEquals(0, pageRevalidations.get());
+    }
+
+    @Test
+    public void shouldNotReadFeedWithoutCatalog() throws IOException {
+        assertNull(reader.readChanges(root + "/v2", null));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class NugetFeedClientTest {
+
+    HttpServer server;
+    String root;
+    NugetFeedClient client;
+    final AtomicInteger notModified = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        root = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+        server.createContext("/v3/index.json", exchange -> respond(exchange, 200,
+            "{\"version\":\"3.0.0\",\"resources\":[{\"@id\":\"" + root + "/flat\",\"@type\":\"PackageBaseAddress/3.0.0\"}]}"));
+        server.createContext("/flat/", exchange -> {
+            if (exchange.getRequestURI().getPath().equals("/flat/newtonsoft.json/index.json")) {
+                if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    notModified.incrementAndGet();
+                    exchange.sendResponseHeaders(304, -1);
+                    exchange.close();
+                    return;
+                }
+                exchange.getResponseHeaders().add("ETag", "\"v1\"");
+                respond(exchange, 200, "{\"versions\":[\"11.0.2\",\"12.0.3\",\"13.0.1-beta1\"]}");
+            } else {
+                respond(exchange, 404, "");
+            }
+        });
+        server.createContext("/v2", exchange -> {
+            if (exchange.getRequestURI().getPath().startsWith("/v2/FindPackagesById()")) {
+                respond(exchange, 200, "<?xml version=\"1.0\" encoding=\"utf-8\"?>"
+                    + "<feed xmlns=\"http://www.w3.org/2005/Atom\" xmlns:d=\"http://schemas.microsoft.com/ado/2007/08/dataservices\""
+                    + " xmlns:m=\"http://schemas.microsoft.com/ado/2007/08/dataservices/metadata\">"
+                    + "<entry><title>Serilog</title><m:properties><d:Version>2.10.0</d:Version></m:properties></entry></feed>");
+            } else {
+                respond(exchange, 200, "<?xml version=\"1.0\" encoding=\"utf-8\"?><service xmlns=\"http://www.w3.org/2007/app\"/>");
+            }
+        });
+        server.start();
+        client = new NugetFeedClient();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldResolveLatestVersionFromFlatContainer() throws IOException {
+        assertEquals("12.0.3", client.getLatestVersion(root + "/v3/index.json", "Newtonsoft.Json", false));
+        assertEquals("13.0.1-beta1", client.getLatestVersion(root + "/v3/index.json", "Newtonsoft.Json", true));
+    }
+
+    @Test
+    public void shouldRevalidateWithETag() throws IOException {
+        client.getLatestVersion(root + "/v3/index.json", "Newtonsoft.Json", false);
+        assertEquals("12.0.3", client.getLatestVersion(root + "/v3/index.json", "Newtonsoft.Json", false));
+        assertEquals(1, notModified.get());
+    }
+
+    @Test
+    public void shouldReturnNullForUnknownPackage() throws IOException {
+        assertNull(client.getLatestVersion(root + "/v3/index.json", "Unknown", false));
+    }
+
+    @Test
+    public void shouldFallBackToODataFeed() throws IOException {
+        assertEquals("2.10.0", client.getLatestVersion(root + "/v2", "Serilog", false));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
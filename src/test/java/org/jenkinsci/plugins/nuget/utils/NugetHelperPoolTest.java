@@ -0,0 +1,141 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class NugetHelperPoolTest {
+
+    static final String HELPER = String.format("%s%sbin%sjava -cp %s %s", System.getProperty("java.home"), File.separator, File.separator,
+            System.getProperty("java.class.path"), FakeHelper.class.getName());
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    NugetHelperPool pool = new NugetHelperPool();
+
+    @After
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void shouldReuseHelperUntilItsMaximumRequests() throws Exception {
+        String first = execute(2, 0, "list", "packageid:NUnit");
+        String second = execute(2, 0, "list", "packageid:Moq");
+        String third = execute(2, 0, "list", "packageid:Moq");
+
+        assertEquals(folder.getRoot().getAbsolutePath() + " list packageid:NUnit", first.substring(first.indexOf(' ') + 1));
+        assertEquals(pid(first), pid(second));
+        assertNotEquals(pid(second), pid(third));
+    }
+
+    @Test
+    public void shouldReturnExitCodeAndKeepHelper() throws Exception {
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        int exitCode = pool.execute(HELPER, 10, 4, folder.getRoot(), Arrays.asList("fail"), new ByteArrayOutputStream(), stderr, 0);
+
+        assertEquals(1, exitCode);
+        assertEquals("failed\n", new String(stderr.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(1, pool.getIdleCount(HELPER));
+    }
+
+    @Test
+    public void shouldKillHelperOnTimeout() throws Exception {
+        try {
+            execute(10, 1, "hang");
+            fail("The helper should be killed");
+        } catch (IOException ex) {
+            assertTrue(ex.getMessage().contains("killed"));
+        }
+        assertEquals(0, pool.getIdleCount(HELPER));
+    }
+
+    @Test
+    public void shouldStopHelperBreakingTheFraming() throws Exception {
+        try {
+            execute(10, 0, "garbage");
+            fail("The frame should be rejected");
+        } catch (IOException ex) {
+            assertTrue(ex.getMessage().contains("frame"));
+        }
+        assertEquals(0, pool.getIdleCount(HELPER));
+    }
+
+    private String execute(int maxRequests, long timeout, String... arguments) throws Exception {
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        int exitCode = pool.execute(HELPER, maxRequests, 4, folder.getRoot(), Arrays.asList(arguments), stdout, new ByteArrayOutputStream(), timeout);
+        assertEquals(0, exitCode);
+        return new String(stdout.toByteArray(), StandardCharsets.UTF_8).trim();
+    }
+
+    private static String pid(String output) {
+        return output.substring(0, output.indexOf(' '));
+    }
+
+    /**
+     * Answers each request with its process id, working directory and arguments.
+     */
+    public static final class FakeHelper {
+        public static void main(String[] args) throws Exception {
+            DataInputStream in = new DataInputStream(System.in);
+            DataOutputStream out = new DataOutputStream(System.out);
+            String pid = ManagementFactory.getRuntimeMXBean().getName();
+            while (true) {
+                int count;
+                try {
+                    count = in.readInt();
+                } catch (IOException ex) {
+                    return;
+                }
+                List<String> request = new ArrayList<>();
+                for (int idx = 0; idx < count; idx++) {
+                    byte[] value = new byte[in.readInt()];
+                    in.readFully(value);
+                    request.add(new String(value, StandardCharsets.UTF_8));
+                }
+                String command = request.get(1);
+                if (command.equals("hang")) {
+                    Thread.sleep(Long.MAX_VALUE);
+                } else if (command.equals("garbage")) {
+                    out.writeByte('?');
+                    out.writeInt(0);
+                } else if (command.equals("fail")) {
+                    frame(out, NugetHelperPool.STDERR, "failed\n".getBytes(StandardCharsets.UTF_8));
+                    out.writeByte(NugetHelperPool.EXIT);
+                    out.writeInt(4);
+                    out.writeInt(1);
+                } else {
+                    frame(out, NugetHelperPool.STDOUT, (pid + " " + String.join(" ", request) + "\n").getBytes(StandardCharsets.UTF_8));
+                    out.writeByte(NugetHelperPool.EXIT);
+                    out.writeInt(4);
+                    out.writeInt(0);
+                }
+                out.flush();
+            }
+        }
+
+        private static void frame(DataOutputStream out, byte type, byte[] bytes) throws IOException {
+            out.writeByte(type);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+}
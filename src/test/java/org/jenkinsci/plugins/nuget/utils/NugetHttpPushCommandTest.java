@@ -0,0 +1,138 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import hudson.util.StreamTaskListener;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NugetHttpPushCommandTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    HttpServer server;
+    String root;
+    ByteArrayOutputStream log = new ByteArrayOutputStream();
+    String method;
+    String apiKey;
+    String contentLength;
+    byte[] body;
+    int status = 201;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        root = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+        server.createContext("/v3/index.json", exchange -> respond(exchange, 200,
+            "{\"version\":\"3.0.0\",\"resources\":[{\"@id\":\"" + root + "/feed/api/v2/package\",\"@type\":\"PackagePublish/2.0.0\"}]}"));
+        server.createContext("/feed/api/v2/package", exchange -> {
+            method = exchange.getRequestMethod();
+            apiKey = exchange.getRequestHeaders().getFirst("X-NuGet-ApiKey");
+            contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+            try (InputStream in = exchange.getRequestBody()) {
+                body = IOUtils.toByteArray(in);
+            }
+            if (status / 100 == 3) {
+                exchange.getResponseHeaders().add("Location", root + "/other/api/v2/package");
+            }
+            respond(exchange, status, "");
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldStreamPackageAsMultipartPut() throws IOException {
+        byte[] content = new byte[3 * 1024 * 1024 + 17];
+        new Random(42).nextBytes(content);
+        File packageFile = writePackage(content);
+
+        assertTrue(command(packageFile, root + "/feed/").execute());
+
+        assertEquals("PUT", method);
+        assertEquals("secret", apiKey);
+        assertEquals(String.valueOf(body.length), contentLength);
+        String text = new String(body, StandardCharsets.ISO_8859_1);
+        int start = text.indexOf("\r\n\r\n") + 4;
+        int end = text.lastIndexOf("\r\n--");
+        byte[] uploaded = new byte[end - start];
+        System.arraycopy(body, start, uploaded, 0, uploaded.length);
+        assertArrayEquals(content, uploaded);
+        assertTrue(text.startsWith("--"));
+        assertTrue(text.contains("filename=\"package.nupkg\""));
+    }
+
+    @Test
+    public void shouldPushToPublishResourceOfServiceIndex() throws IOException {
+        assertTrue(command(writePackage(new byte[] {1, 2, 3}), root + "/v3/index.json").execute());
+        assertEquals("PUT", method);
+    }
+
+    @Test
+    public void shouldReportExistingPackage() throws IOException {
+        status = 409;
+        assertFalse(command(writePackage(new byte[] {1, 2, 3}), root + "/feed/api/v2/package").execute());
+        assertTrue(log.toString("UTF-8").contains("already exists"));
+    }
+
+    @Test
+    public void shouldSkipExistingPackage() throws IOException {
+        status = 409;
+        NugetHttpPushCommand command = command(writePackage(new byte[] {1, 2, 3}), root + "/feed/");
+        command.setSkipDuplicate(true);
+        assertTrue(command.execute());
+        assertTrue(command.isDuplicate());
+    }
+
+    @Test
+    public void shouldReportRedirection() throws IOException {
+        status = 301;
+        assertFalse(command(writePackage(new byte[] {1, 2, 3}), root + "/feed/").execute());
+        String output = log.toString("UTF-8");
+        assertTrue(output.contains("HTTP 301"));
+        assertTrue(output.contains(root + "/other/api/v2/package"));
+    }
+
+    private NugetHttpPushCommand command(File packageFile, String source) {
+        return new NugetHttpPushCommand(new StreamTaskListener(log, StandardCharsets.UTF_8), packageFile, source, "secret");
+    }
+
+    private File writePackage(byte[] content) throws IOException {
+        File packageFile = folder.newFile("Foo.1.0.0.nupkg");
+        Files.write(packageFile.toPath(), content);
+        return packageFile;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -1,50 +1,93 @@
 package org.jenkinsci.plugins.nuget.utils;
 
-import org.jenkinsci.plugins.nuget.NugetGlobalConfiguration;
 import org.jenkinsci.plugins.nuget.triggers.logs.TriggerLog;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentCaptor;
-import org.xml.sax.SAXParseException;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
 public class NugetPackageCheckerVisitorTest {
 
+    @Rule
+    public TemporaryFolder workspace = new TemporaryFolder();
+
     NugetPackageCheckerVisitor visitor;
     TriggerLog log;
 
     @Before
     public void setUp() throws Exception {
         log = mock(TriggerLog.class);
-        NugetGlobalConfiguration configuration = mock(NugetGlobalConfiguration.class);
-        visitor = new NugetPackageCheckerVisitor(
-            log,
-            configuration,
-            true,
-            null
-        );
-        visitor.getLatestPackageVersions().put("Test", "1.0.0");
     }
 
     @Test
-    public void shouldNotBeVulnerableToXxe() throws URISyntaxException, IOException {
+    public void shouldNotBeVulnerableToXxe() throws Exception {
         Path file = getFile("xxe");
+        visitor = new NugetPackageCheckerVisitor(log, file.getParent(), new ManifestIndex(), defaultMatcher(), ManifestParsers.createDefault());
         FileVisitResult fileVisitResult = visitor.visitFile(file, null);
 
-        ArgumentCaptor<SAXParseException> exceptionArgumentCaptor = ArgumentCaptor.forClass(SAXParseException.class);
-        verify(log).errorWhileParsingPackageConfigFile(exceptionArgumentCaptor.capture());
-        SAXParseException exception = exceptionArgumentCaptor.getValue();
-        assertEquals(DOCTYPE_FORBIDDEN_ERROR, exception.getMessage());
+        ArgumentCaptor<ManifestParseException> exceptionArgumentCaptor = ArgumentCaptor.forClass(ManifestParseException.class);
+        verify(log).errorWhileParsingManifest(eq(file), exceptionArgumentCaptor.capture());
+        ManifestParseException exception = exceptionArgumentCaptor.getValue();
+        assertEquals(XmlManifestParser.DOCTYPE_FORBIDDEN, exception.getMessage());
+        assertTrue(visitor.getDependencies().isEmpty());
+    }
+
+    @Test
+    public void shouldNotWalkExcludedDirectories() throws Exception {
+        Path root = workspace.getRoot().toPath();
+        writeManifest(root.resolve("packages.config"));
+        writeManifest(root.resolve("src/App/packages.config"));
+        writeManifest(root.resolve("src/App/bin/Debug/packages.config"));
+        writeManifest(root.resolve("packages/Foo.1.0.0/packages.config"));
+        visitor = new NugetPackageCheckerVisitor(log, root, new ManifestIndex(), defaultMatcher(), ManifestParsers.createDefault());
+
+        Files.walkFileTree(root, visitor);
+
+        assertEquals(new HashSet<>(Arrays.asList("packages.config", "src/App/packages.config")), visitor.getVisitedManifests());
+        assertEquals(1, visitor.getDependencies().size());
+        PackageDependency dependency = visitor.getDependencies().iterator().next();
+        assertEquals(new HashSet<>(Arrays.asList("packages.config", "src/App/packages.config")), dependency.getManifests("12.0.1"));
+    }
+
+    @Test
+    public void shouldMatchManifestPatterns() {
+        ManifestMatcher matcher = new ManifestMatcher("src/**/packages.config, *.proj", "");
+        assertTrue(matcher.isManifest("src/packages.config"));
+        assertTrue(matcher.isManifest("src/App/Packages.Config"));
+        assertFalse(matcher.isManifest("packages.config"));
+        assertTrue(matcher.isManifest("build/all.proj"));
+        assertFalse(matcher.isExcludedDirectory("bin"));
+        assertFalse(defaultMatcher().isIncluded("src/obj/packages.config"));
+    }
+
+    private static ManifestMatcher defaultMatcher() {
+        return new ManifestMatcher(ManifestMatcher.DEFAULT_INCLUDES, ManifestMatcher.DEFAULT_EXCLUDED_DIRECTORIES);
+    }
+
+    private static void writeManifest(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        String content = "<?xml version=\"1.0\" encoding=\"utf-8\"?>\n"
+            + "<packages>\n  <package id=\"Newtonsoft.Json\" version=\"12.0.1\" />\n</packages>\n";
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
     }
 
     private Path getFile(String path) throws URISyntaxException {
@@ -54,7 +97,4 @@ public class NugetPackageCheckerVisitorTest {
         File file = new File(url.toURI());
         return file.toPath();
     }
-
-    final String DOCTYPE_FORBIDDEN_ERROR =
-        "DOCTYPE is disallowed when the feature \"http://apache.org/xml/features/disallow-doctype-decl\" set to true.";
 }
@@ -0,0 +1,49 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import org.jenkinsci.plugins.nuget.triggers.NugetUpdatePolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the version comparison run for each package of each job on each poll.
+ */
+@State(Scope.Benchmark)
+public class NugetVersionBenchmark {
+
+    private final String[] referenced = {
+        "13.0.1", "1.0", "4.7.0-preview.2.20176.6", "[1.0, 2.0)", "2.1.0.5", "3.13.2", "6.0.0-rc.1.21451.13", "0.9.8+build.42"
+    };
+    private final String[] latest = {
+        "13.0.3", "1.0.0", "4.7.0", "1.5.0", "2.1.0.5", "4.0.0-beta.1", "6.0.0", "0.9.9"
+    };
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (String version : latest) {
+            blackhole.consume(NugetVersion.tryParse(version));
+        }
+    }
+
+    @Benchmark
+    public void compare(Blackhole blackhole) {
+        for (int idx = 0; idx < latest.length; idx++) {
+            blackhole.consume(NugetVersion.tryParse(latest[idx]).compareTo(NugetVersion.tryParse(latest[(idx + 1) % latest.length])));
+        }
+    }
+
+    @Benchmark
+    public void isUpdate(Blackhole blackhole) {
+        for (int idx = 0; idx < referenced.length; idx++) {
+            blackhole.consume(NugetUpdatePolicy.MINOR.isUpdate(referenced[idx], latest[idx]));
+        }
+    }
+
+    @Benchmark
+    public void stringEquals(Blackhole blackhole) {
+        for (int idx = 0; idx < referenced.length; idx++) {
+            blackhole.consume(!referenced[idx].equals(latest[idx]));
+        }
+    }
+}
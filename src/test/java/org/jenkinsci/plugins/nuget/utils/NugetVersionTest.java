@@ -0,0 +1,131 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import org.jenkinsci.plugins.nuget.triggers.NugetUpdatePolicy;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class NugetVersionTest {
+
+    @Test
+    public void shouldNormalizeVersions() {
+        assertEquals(version("1.0.0"), version("1.0"));
+        assertEquals(version("1.0.0"), version("1"));
+        assertEquals(version("1.0.0"), version("1.0.0.0"));
+        assertEquals(version("1.2.3"), version("01.002.3+build.5"));
+        assertEquals(version("1.0.0-BETA"), version("1.0.0-beta"));
+        assertEquals("1.2.3.4-rc.1", version("1.2.3.4-rc.1+sha.abc").toString());
+        assertEquals("1.0.0", version("1.0").toString());
+        assertEquals(version("1.0").hashCode(), version("1.0.0.0").hashCode());
+    }
+
+    @Test
+    public void shouldRejectInvalidVersions() {
+        for (String invalid : Arrays.asList("", "a.b", "1.", "1..0", "1.0.0.0.0", "1.0-", "1.0-beta..1", "1.0-beta!", "1.0 beta", "99999999999")) {
+            assertNull(invalid, NugetVersion.tryParse(invalid));
+        }
+    }
+
+    @Test
+    public void shouldOrderPrereleasesBeforeReleases() {
+        List<String> ordered = Arrays.asList(
+                "1.0.0-alpha", "1.0.0-alpha.1", "1.0.0-alpha.beta", "1.0.0-beta",
+                "1.0.0-beta.2", "1.0.0-beta.11", "1.0.0-rc.1", "1.0.0", "1.0.0.1", "1.0.1", "1.10.0", "2.0.0");
+        List<NugetVersion> versions = new ArrayList<>();
+        for (String version : ordered) {
+            versions.add(version(version));
+        }
+        List<NugetVersion> sorted = new ArrayList<>(versions);
+        Collections.reverse(sorted);
+        Collections.sort(sorted);
+        assertEquals(versions, sorted);
+    }
+
+    @Test
+    public void shouldParseRanges() {
+        VersionRange minimum = VersionRange.tryParse("1.0");
+        assertTrue(minimum.satisfies(version("1.0.0")));
+        assertTrue(minimum.satisfies(version("5.0.0")));
+        assertFalse(minimum.satisfies(version("0.9.0")));
+
+        VersionRange exact = VersionRange.tryParse("[1.0]");
+        assertTrue(exact.satisfies(version("1.0.0")));
+        assertFalse(exact.satisfies(version("1.0.1")));
+
+        VersionRange bounded = VersionRange.tryParse("[1.0, 2.0)");
+        assertEquals(version("1.0"), bounded.getMin());
+        assertTrue(bounded.satisfies(version("1.9.9")));
+        assertFalse(bounded.satisfies(version("2.0.0")));
+
+        VersionRange upper = VersionRange.tryParse("(,1.5]");
+        assertNull(upper.getMin());
+        assertTrue(upper.satisfies(version("1.5")));
+
+        assertNull(VersionRange.tryParse("(1.0)"));
+        assertNull(VersionRange.tryParse("[,]"));
+        assertNull(VersionRange.tryParse("[1.0"));
+    }
+
+    @Test
+    public void shouldParseFloatingVersions() {
+        VersionRange major = VersionRange.tryParse("1.*");
+        assertTrue(major.isFloating());
+        assertTrue(major.satisfies(version("1.9.0")));
+        assertFalse(major.satisfies(version("2.0.0-beta")));
+
+        VersionRange minor = VersionRange.tryParse("1.2.*");
+        assertTrue(minor.satisfies(version("1.2.7")));
+        assertFalse(minor.satisfies(version("1.3.0")));
+
+        VersionRange prerelease = VersionRange.tryParse("1.0.0-*");
+        assertTrue(prerelease.satisfies(version("1.0.0-beta")));
+        assertTrue(prerelease.satisfies(version("1.0.0")));
+        assertFalse(prerelease.satisfies(version("1.0.1")));
+
+        assertTrue(VersionRange.tryParse("*").satisfies(version("42.0")));
+    }
+
+    @Test
+    public void shouldApplyUpdatePolicies() {
+        assertFalse(NugetUpdatePolicy.MAJOR.isUpdate("1.0", "1.0.0"));
+        assertFalse(NugetUpdatePolicy.MAJOR.isUpdate("2.0.0", "1.9.0"));
+        assertTrue(NugetUpdatePolicy.MAJOR.isUpdate("1.0.0", "2.0.0"));
+
+        assertTrue(NugetUpdatePolicy.MINOR.isUpdate("1.0.0", "1.1.0"));
+        assertFalse(NugetUpdatePolicy.MINOR.isUpdate("1.0.0", "2.0.0"));
+
+        assertTrue(NugetUpdatePolicy.PATCH.isUpdate("1.0.0", "1.0.1"));
+        assertFalse(NugetUpdatePolicy.PATCH.isUpdate("1.0.0", "1.1.0"));
+
+        assertTrue(NugetUpdatePolicy.RANGE.isUpdate("[1.0, 2.0)", "1.5.0"));
+        assertFalse(NugetUpdatePolicy.RANGE.isUpdate("[1.0, 2.0)", "2.0.0"));
+
+        assertTrue(NugetUpdatePolicy.MAJOR.isUpdate("not-a-version", "1.0.0"));
+    }
+
+    @Test
+    public void shouldCompareRangesWithOnlyAnUpperBoundWithIt() {
+        assertFalse(NugetUpdatePolicy.MAJOR.isUpdate("(,2.0)", "1.5.0"));
+        assertFalse(NugetUpdatePolicy.MAJOR.isUpdate("[,1.5]", "1.5.0"));
+        assertTrue(NugetUpdatePolicy.MAJOR.isUpdate("[,1.5]", "1.6.0"));
+        assertFalse(NugetUpdatePolicy.PATCH.isUpdate("(,2.0)", "3.0.0"));
+        assertFalse(NugetUpdatePolicy.RANGE.isUpdate("(,2.0)", "3.0.0"));
+        assertFalse(NugetUpdatePolicy.MAJOR.isUpdate("Custom", "custom"));
+    }
+
+    private static NugetVersion version(String value) {
+        NugetVersion version = NugetVersion.tryParse(value);
+        if (version == null) {
+            throw new IllegalArgumentException(value);
+        }
+        return version;
+    }
+}
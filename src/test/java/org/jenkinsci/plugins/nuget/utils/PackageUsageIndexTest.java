@@ -0,0 +1,81 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PackageUsageIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldFindJobsReferencingPackage() throws IOException {
+        PackageUsageIndex index = PackageUsageIndex.load(new File(folder.getRoot(), PackageUsageIndex.FILE_NAME));
+        index.update("a", checked(dependency("Newtonsoft.Json", "12.0.3", "src/A/packages.config"), dependency("Serilog", "2.10.0", "src/A/packages.config")));
+        index.update("folder/b", checked(dependency("newtonsoft.json", "13.0.1", "B.csproj")));
+
+        assertEquals(new TreeSet<>(Arrays.asList("a", "folder/b")), index.getJobs("NEWTONSOFT.JSON"));
+        assertEquals(Collections.singleton("B.csproj"), index.getVersions("Newtonsoft.Json", "folder/b").get("13.0.1"));
+        assertEquals(Collections.singleton("a"), index.getJobs("Serilog"));
+    }
+
+    @Test
+    public void shouldReplacePackagesOfJob() throws IOException {
+        PackageUsageIndex index = PackageUsageIndex.load(new File(folder.getRoot(), PackageUsageIndex.FILE_NAME));
+        index.update("a", checked(dependency("Serilog", "2.10.0", "packages.config")));
+        index.update("a", checked(dependency("NUnit", "3.13.0", "packages.config")));
+
+        assertTrue(index.getJobs("Serilog").isEmpty());
+        assertEquals(Collections.singleton("a"), index.getJobs("NUnit"));
+    }
+
+    @Test
+    public void shouldNotRewriteUnchangedPackages() throws IOException {
+        File file = new File(folder.getRoot(), PackageUsageIndex.FILE_NAME);
+        PackageUsageIndex index = PackageUsageIndex.load(file);
+        index.update("a", checked(dependency("Serilog", "2.10.0", "packages.config"), dependency("NUnit", "3.13.0", "packages.config")));
+        assertTrue(file.delete());
+
+        index.update("a", checked(dependency("NUnit", "3.13.0", "packages.config"), dependency("Serilog", "2.10.0", "packages.config")));
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void shouldReloadPersistedIndex() throws IOException {
+        File file = new File(folder.getRoot(), PackageUsageIndex.FILE_NAME);
+        PackageUsageIndex index = PackageUsageIndex.load(file);
+        index.update("a", checked(dependency("Serilog", "2.10.0", "packages.config")));
+        index.update("folder/b", checked(dependency("Serilog", "2.9.0", "B.csproj")));
+        index.rename("a", "c");
+
+        PackageUsageIndex reloaded = PackageUsageIndex.load(file);
+        assertEquals(new TreeSet<>(Arrays.asList("c", "folder/b")), reloaded.getJobs("serilog"));
+        assertEquals(Collections.singleton("2.9.0"), reloaded.getVersions("Serilog", "folder/b").keySet());
+
+        reloaded.remove("folder");
+        assertEquals(Collections.singleton("c"), PackageUsageIndex.load(file).getJobs("Serilog"));
+    }
+
+    private static PackageDependency dependency(String id, String version, String manifest) {
+        PackageDependency dependency = new PackageDependency(id);
+        dependency.addVersion(version, manifest);
+        return dependency;
+    }
+
+    private static NugetCheckResult checked(PackageDependency... dependencies) {
+        NugetCheckResult result = new NugetCheckResult();
+        result.setDependencies(Arrays.asList(dependencies));
+        return result;
+    }
+}
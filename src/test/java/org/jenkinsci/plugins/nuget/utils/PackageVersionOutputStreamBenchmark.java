@@ -0,0 +1,95 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Measures the capture of a large {@code NuGet.exe list} output, written by chunks as the launcher pumps it,
+ * against the unbounded byte by byte capture it replaces.
+ * It runs with the other benchmarks, see {@link org.jenkinsci.plugins.nuget.JmhBenchmarks}.
+ */
+@State(Scope.Benchmark)
+public class PackageVersionOutputStreamBenchmark {
+
+    private static final int CHUNK_SIZE = 8192;
+    private static final String PACKAGE_NAME = "Newtonsoft.Json";
+
+    private byte[] output;
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder();
+        for (int idx = 0; idx < 20000; idx++) {
+            builder.append("Newtonsoft.Json.Extension").append(idx).append(' ').append(idx % 10).append(".0.").append(idx).append("\r\n");
+            if (idx == 10000) {
+                builder.append(PACKAGE_NAME).append(" 13.0.3\r\n");
+            }
+        }
+        output = builder.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public String streaming() throws IOException {
+        PackageVersionOutputStream stream = new PackageVersionOutputStream(NullOutputStream.NULL_OUTPUT_STREAM, PACKAGE_NAME);
+        pump(stream);
+        stream.close();
+        return stream.getVersion();
+    }
+
+    @Benchmark
+    public String forking() throws IOException {
+        ForkingOutputStream stream = new ForkingOutputStream(NullOutputStream.NULL_OUTPUT_STREAM);
+        pump(stream);
+        String version = null;
+        for (String line : stream.getLines()) {
+            String[] parts = line.split(" ", 2);
+            if (parts.length == 2 && parts[0].equalsIgnoreCase(PACKAGE_NAME)) {
+                version = parts[1];
+            }
+        }
+        return version;
+    }
+
+    private void pump(OutputStream stream) throws IOException {
+        for (int idx = 0; idx < output.length; idx += CHUNK_SIZE) {
+            stream.write(output, idx, Math.min(CHUNK_SIZE, output.length - idx));
+        }
+    }
+
+    /**
+     * The capture used before {@link PackageVersionOutputStream}: every byte copied to an unbounded buffer, then split in lines.
+     */
+    private static final class ForkingOutputStream extends OutputStream {
+        private final OutputStream stream;
+        private final ByteArrayOutputStream forkedStream = new ByteArrayOutputStream();
+
+        private ForkingOutputStream(OutputStream stream) {
+            this.stream = stream;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            stream.write(b);
+            forkedStream.write(b);
+        }
+
+        private List<String> getLines() throws IOException {
+            ByteArrayInputStream is = new ByteArrayInputStream(forkedStream.toByteArray());
+            List<String> result = IOUtils.readLines(is);
+            is.close();
+            forkedStream.close();
+            return result;
+        }
+    }
+}
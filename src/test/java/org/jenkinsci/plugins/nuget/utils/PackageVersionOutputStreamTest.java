@@ -0,0 +1,83 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PackageVersionOutputStreamTest {
+
+    private static final String OUTPUT = "Using credentials\r\n"
+            + "Newtonsoft.Json.Bson 1.0.2\r\n"
+            + "newtonsoft.json 13.0.3\r\n"
+            + "Newtonsoft.Json.Schema 3.0.15\r\n";
+
+    @Test
+    public void shouldForwardOutputAndMatchPackageLine() throws IOException {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        PackageVersionOutputStream stream = new PackageVersionOutputStream(log, "Newtonsoft.Json");
+        byte[] output = OUTPUT.getBytes(StandardCharsets.US_ASCII);
+
+        stream.write(output, 0, output.length);
+        stream.close();
+
+        assertArrayEquals(output, log.toByteArray());
+        assertEquals("13.0.3", stream.getVersion());
+    }
+
+    @Test
+    public void shouldMatchLinesSplitAcrossWrites() throws IOException {
+        PackageVersionOutputStream stream = new PackageVersionOutputStream(new ByteArrayOutputStream(), "Newtonsoft.Json");
+        byte[] output = OUTPUT.replace("\r\n", "\n").getBytes(StandardCharsets.US_ASCII);
+
+        for (int idx = 0; idx < output.length; idx += 5) {
+            stream.write(output, idx, Math.min(5, output.length - idx));
+        }
+        stream.write('N');
+        stream.write(Arrays.copyOfRange(output, 0, 0));
+        stream.close();
+
+        assertEquals("13.0.3", stream.getVersion());
+    }
+
+    @Test
+    public void shouldMatchLastLineWithoutEndOfLine() throws IOException {
+        PackageVersionOutputStream stream = new PackageVersionOutputStream(new ByteArrayOutputStream(), "Foo");
+        for (byte b : "Foo.Bar 1.0\nFoo 2.0.1".getBytes(StandardCharsets.US_ASCII)) {
+            stream.write(b);
+        }
+        stream.close();
+
+        assertEquals("2.0.1", stream.getVersion());
+    }
+
+    @Test
+    public void shouldKeepHighestVersionListedBySources() throws IOException {
+        PackageVersionOutputStream stream = new PackageVersionOutputStream(new ByteArrayOutputStream(), "Foo");
+        byte[] output = "Foo 2.1.0\nFoo 10.0.0\nFoo 9.5.0\n".getBytes(StandardCharsets.US_ASCII);
+
+        stream.write(output, 0, output.length);
+        stream.close();
+
+        assertEquals("10.0.0", stream.getVersion());
+    }
+
+    @Test
+    public void shouldIgnoreLinesLongerThanBuffer() throws IOException {
+        PackageVersionOutputStream stream = new PackageVersionOutputStream(new ByteArrayOutputStream(), "Foo");
+        char[] longVersion = new char[PackageVersionOutputStream.MAX_LINE_LENGTH];
+        Arrays.fill(longVersion, '1');
+        byte[] output = ("Foo " + new String(longVersion) + "\n").getBytes(StandardCharsets.US_ASCII);
+
+        stream.write(output, 0, output.length);
+        stream.close();
+
+        assertNull(stream.getVersion());
+    }
+}
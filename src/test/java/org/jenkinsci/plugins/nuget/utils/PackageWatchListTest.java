@@ -0,0 +1,133 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.jenkinsci.plugins.nuget.NugetGlobalConfiguration;
+import org.jenkinsci.plugins.nuget.triggers.NugetUpdatePolicy;
+import org.jenkinsci.plugins.nuget.triggers.logs.TriggerLog;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PackageWatchListTest {
+
+    HttpServer server;
+    AtomicInteger lookups = new AtomicInteger();
+    NugetGlobalConfiguration configuration = mock(NugetGlobalConfiguration.class);
+    TriggerLog log = mock(TriggerLog.class);
+    PackageWatchList watchList = new PackageWatchList();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/feed", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            if (query == null) {
+                respond(exchange, "<service/>");
+            } else {
+                lookups.incrementAndGet();
+                respond(exchange, "<feed xmlns=\"http://www.w3.org/2005/Atom\" xmlns:d=\"http://schemas.microsoft.com/ado/2007/08/dataservices\">"
+                        + "<entry><d:Version>2.0.0</d:Version></entry></feed>");
+            }
+        });
+        server.start();
+        String feed = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/feed";
+        when(configuration.getPackageSourceList()).thenReturn(Collections.singletonList(feed));
+        when(configuration.getLookupThreads()).thenReturn(2);
+        when(configuration.getLookupsPerFeed()).thenReturn(2);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldLookUpSharedPackageOnceForAllJobs() throws InterruptedException {
+        watchList.subscribe("a", false, NugetUpdatePolicy.MAJOR, collected("Foo", "1.0.0"));
+        watchList.subscribe("b", false, NugetUpdatePolicy.MAJOR, collected("foo", "1.5.0"));
+        watchList.subscribe("c", false, NugetUpdatePolicy.MAJOR, collected("Foo", "2.0.0"));
+
+        Map<String, NugetCheckResult> updates = watchList.refresh(log, configuration);
+
+        assertEquals(1, lookups.get());
+        assertEquals(2, updates.size());
+        assertEquals("2.0.0", updates.get("a").getUpdates().get(0).getLatest());
+        assertEquals("1.5.0", updates.get("b").getUpdates().get(0).getVersion());
+    }
+
+    @Test
+    public void shouldNotifyEachLatestVersionOnce() throws InterruptedException {
+        watchList.subscribe("a", false, NugetUpdatePolicy.MAJOR, collected("Foo", "1.0.0"));
+        assertEquals(1, watchList.refresh(log, configuration).size());
+
+        watchList.subscribe("a", false, NugetUpdatePolicy.MAJOR, collected("Foo", "1.0.0"));
+        assertTrue(watchList.refresh(log, configuration).isEmpty());
+    }
+
+    @Test
+    public void shouldForgetUnsubscribedJobs() throws InterruptedException {
+        watchList.subscribe("a", false, NugetUpdatePolicy.MAJOR, collected("Foo", "1.0.0"));
+        watchList.unsubscribe("a");
+
+        assertTrue(watchList.isEmpty());
+        assertTrue(watchList.published("Foo", "2.0.0").isEmpty());
+        assertTrue(watchList.refresh(log, configuration).isEmpty());
+        assertEquals(0, lookups.get());
+    }
+
+    @Test
+    public void shouldLookUpEveryPackageOfFeedWithoutCatalog() throws InterruptedException {
+        when(configuration.isReadCatalogs()).thenReturn(true);
+        watchList.subscribe("a", false, NugetUpdatePolicy.MAJOR, collected("Foo", "2.0.0"));
+
+        watchList.refresh(log, configuration);
+        watchList.refresh(log, configuration);
+
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void shouldCheckJobsReferencingPublishedPackage() {
+        watchList.subscribe("a", false, NugetUpdatePolicy.MAJOR, collected("Foo", "1.0.0"));
+        watchList.subscribe("b", false, NugetUpdatePolicy.MAJOR, collected("Bar", "1.0.0"));
+        watchList.subscribe("c", true, NugetUpdatePolicy.MAJOR, collected("foo", "1.0.0"));
+
+        assertEquals(Collections.singleton("c"), watchList.published("Foo", "2.0.0-beta").keySet());
+        assertEquals(new HashSet<>(Arrays.asList("a", "c")), watchList.published("foo", "2.0.0").keySet());
+        assertTrue(watchList.published("Foo", "2.0.0").isEmpty());
+        assertEquals(0, lookups.get());
+    }
+
+    private static NugetCheckResult collected(String id, String version) {
+        PackageDependency dependency = new PackageDependency(id);
+        dependency.addVersion(version, "packages.config");
+        NugetCheckResult result = new NugetCheckResult();
+        result.setDependencies(Collections.singletonList(dependency));
+        return result;
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PollHistoryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldKeepTheLatestPollsInARing() throws IOException {
+        File file = new File(folder.getRoot(), PollHistory.FILE_NAME);
+        int polls = PollHistory.CAPACITY + 10;
+        for (int idx = 0; idx < polls; idx++) {
+            PollHistory.append(file, new PollHistory.Record(idx, 2 * idx, new NugetCheckResult()));
+        }
+
+        List<PollHistory.Record> records = PollHistory.read(file, Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(PollHistory.CAPACITY, records.size());
+        assertEquals(10, records.get(0).getTimestamp());
+        assertEquals(polls - 1, records.get(records.size() - 1).getTimestamp());
+        assertEquals(2 * (polls - 1), records.get(records.size() - 1).getDurationMillis());
+        assertTrue(file.length() <= 20 + PollHistory.CAPACITY * PollHistory.RECORD_SIZE);
+    }
+
+    @Test
+    public void shouldReadPollsOfTimeRange() throws IOException {
+        File file = new File(folder.getRoot(), PollHistory.FILE_NAME);
+        NugetCheckResult result = new NugetCheckResult();
+        PollStatistics statistics = new PollStatistics();
+        statistics.cacheHit();
+        statistics.lookedUp("feed", 1000, true);
+        statistics.lookedUp("feed", 1000, false);
+        result.setStatistics(statistics);
+        result.addUpdate(new PackageUpdate("NUnit", "3.0.0", "3.1.0", Collections.singleton("packages.config")));
+        for (long time = 100; time <= 500; time += 100) {
+            PollHistory.append(file, new PollHistory.Record(time, 10, result));
+        }
+
+        List<PollHistory.Record> records = PollHistory.read(file, 200, 400);
+        assertEquals(2, records.size());
+        assertEquals(200, records.get(0).getTimestamp());
+        assertEquals(300, records.get(1).getTimestamp());
+        assertEquals(PollHistory.Result.UPDATED, records.get(0).getResult());
+        assertEquals(2, records.get(0).getLookups());
+        assertEquals(1, records.get(0).getLookupFailures());
+        assertEquals(1, records.get(0).getCacheHits());
+        assertEquals(1, records.get(0).getUpdates());
+    }
+
+    @Test
+    public void shouldReplaceUnreadableHistory() throws IOException {
+        File file = folder.newFile(PollHistory.FILE_NAME);
+        Files.write(file.toPath(), "not a poll history".getBytes(StandardCharsets.UTF_8));
+        assertTrue(PollHistory.read(file, Long.MIN_VALUE, Long.MAX_VALUE).isEmpty());
+
+        PollHistory.append(file, new PollHistory.Record(1, 1, new NugetCheckResult()));
+
+        List<PollHistory.Record> records = PollHistory.read(file, Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(1, records.size());
+        assertEquals(PollHistory.Result.FAILED, records.get(0).getResult());
+    }
+}
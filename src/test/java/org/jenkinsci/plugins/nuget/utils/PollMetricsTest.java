@@ -0,0 +1,74 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PollMetricsTest {
+
+    PollMetrics metrics = new PollMetrics();
+
+    @Test
+    public void shouldAggregatePollsByJobAndLookupsByFeed() {
+        metrics.record("a", millis(40), checked("https://api.nuget.org/v3/index.json", 20, 300));
+        metrics.record("a", millis(3000), checked("https://api.nuget.org/v3/index.json", 2000));
+        metrics.record("b", millis(10), new NugetCheckResult());
+
+        PollMetrics.JobMetrics job = metrics.getJobs().get("a");
+        assertEquals(2, job.getPolls().getCount());
+        assertEquals(1520, job.getPolls().getMeanMillis());
+        assertEquals(3, job.getLookups().getCount());
+        assertEquals(50, job.getCacheHitRatio());
+        assertEquals(1, metrics.getJobs().get("b").getFailedPolls());
+        assertEquals(3, metrics.getFeeds().get("https://api.nuget.org/v3/index.json").getLookups().getCount());
+    }
+
+    @Test
+    public void shouldRoundPercentilesUpToBucketBounds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int idx = 0; idx < 19; idx++) {
+            histogram.record(millis(30));
+        }
+        histogram.record(millis(400));
+
+        assertEquals(50, histogram.getPercentileMillis(95));
+        assertEquals(500, histogram.getPercentileMillis(100));
+    }
+
+    @Test
+    public void shouldExportPrometheusHistograms() {
+        metrics.record("folder/\"a\"", millis(40), checked("feed", 20, 300));
+
+        StringWriter text = new StringWriter();
+        metrics.writePrometheus(new PrintWriter(text));
+        String export = text.toString();
+
+        assertTrue(export.contains("# TYPE nuget_poll_duration_seconds histogram"));
+        assertTrue(export.contains("nuget_poll_duration_seconds_bucket{job=\"folder/\\\"a\\\"\",le=\"0.025\"} 0"));
+        assertTrue(export.contains("nuget_poll_duration_seconds_bucket{job=\"folder/\\\"a\\\"\",le=\"0.05\"} 1"));
+        assertTrue(export.contains("nuget_poll_duration_seconds_count{job=\"folder/\\\"a\\\"\"} 1"));
+        assertTrue(export.contains("nuget_lookup_duration_seconds_bucket{feed=\"feed\",le=\"0.25\"} 1"));
+        assertTrue(export.contains("nuget_lookup_duration_seconds_bucket{feed=\"feed\",le=\"+Inf\"} 2"));
+    }
+
+    private static NugetCheckResult checked(String feed, long... lookupMillis) {
+        PollStatistics statistics = new PollStatistics();
+        statistics.cacheHit();
+        statistics.cacheMiss();
+        for (long lookup : lookupMillis) {
+            statistics.lookedUp(feed, millis(lookup), true);
+        }
+        NugetCheckResult result = new NugetCheckResult();
+        result.setStatistics(statistics);
+        return result;
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,103 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import org.junit.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PollQueueTest {
+
+    PollQueue queue = new PollQueue(1);
+    CountDownLatch blocked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    List<String> polled = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void shouldDropPollOfJobAlreadyPendingOrRunning() throws InterruptedException {
+        block("slow");
+        assertTrue(queue.submit("a", "slow", 0, () -> polled.add("a")));
+
+        assertFalse(queue.submit("a", "slow", 0, () -> polled.add("a")));
+        assertFalse(queue.submit("blocker", "slow", 0, () -> polled.add("blocker")));
+        assertEquals(1, queue.getFeeds().get("slow").getDepth());
+        assertEquals(2, queue.getFeeds().get("slow").getDropped());
+
+        awaitPolls(1);
+        assertEquals(Arrays.asList("a"), polled);
+        assertTrue(queue.submit("a", "slow", 0, () -> polled.add("a")));
+    }
+
+    @Test
+    public void shouldTakeTurnsBetweenFeeds() throws InterruptedException {
+        block("slow");
+        submit("slow-1", "slow", 0);
+        submit("slow-2", "slow", 0);
+        submit("fast-1", "fast", 0);
+
+        awaitPolls(3);
+        assertEquals(Arrays.asList("slow-1", "fast-1", "slow-2"), polled);
+    }
+
+    @Test
+    public void shouldRunHigherPriorityPollsFirst() throws InterruptedException {
+        block("feed");
+        submit("low", "feed", -2);
+        submit("normal", "feed", -1);
+        submit("high", "feed", 0);
+
+        awaitPolls(3);
+        assertEquals(Arrays.asList("high", "normal", "low"), polled);
+        assertEquals(4, queue.getFeeds().get("feed").getWait().getCount());
+    }
+
+    @Test
+    public void shouldExportQueueMetrics() throws InterruptedException {
+        block("feed");
+        submit("a", "feed", 0);
+
+        StringWriter text = new StringWriter();
+        queue.writePrometheus(new PrintWriter(text));
+        String export = text.toString();
+
+        assertTrue(export.contains("# TYPE nuget_poll_queue_depth gauge"));
+        assertTrue(export.contains("nuget_poll_queue_depth{feed=\"feed\"} 1"));
+        assertTrue(export.contains("nuget_poll_queue_running{feed=\"feed\"} 1"));
+        assertTrue(export.contains("nuget_poll_queue_wait_seconds_count{feed=\"feed\"} 1"));
+        release.countDown();
+    }
+
+    /**
+     * Holds the single thread of the queue until the polls to order are queued.
+     */
+    private void block(String feed) throws InterruptedException {
+        queue.submit("blocker", feed, 0, () -> {
+            blocked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(blocked.await(10, TimeUnit.SECONDS));
+    }
+
+    private void submit(String job, String feed, int priority) {
+        assertTrue(queue.submit(job, feed, priority, () -> polled.add(job)));
+    }
+
+    private void awaitPolls(int count) throws InterruptedException {
+        release.countDown();
+        for (int idx = 0; idx < 100 && polled.size() < count; idx++) {
+            Thread.sleep(50);
+        }
+    }
+}
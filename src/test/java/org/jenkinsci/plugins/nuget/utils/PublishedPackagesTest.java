@@ -0,0 +1,131 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PublishedPackagesTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    HttpServer server;
+    String root;
+    AtomicInteger queries = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        root = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+        server.createContext("/feed/api/v2", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            if (query == null) {
+                respond(exchange, 200, "<service/>");
+            } else if (query.contains("skip")) {
+                respond(exchange, 200, feed(null, "1.2.0"));
+            } else {
+                queries.incrementAndGet();
+                respond(exchange, 200, feed(root + "/feed/api/v2/FindPackagesById()?id='Foo'&$skiptoken=1", "1.0", "1.1.0"));
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldReadNuspecOfPackage() throws IOException {
+        PackageReference reference = NuspecReader.read(writePackage("Foo.1.0.0.nupkg", "Foo", "1.0.0"));
+        assertEquals("Foo", reference.getId());
+        assertEquals("1.0.0", reference.getVersion());
+    }
+
+    @Test
+    public void shouldQueryFeedOfPushEndpoint() {
+        assertEquals("https://host/feed/api/v2", PublishedPackages.getFeed("https://host/feed/api/v2/package/"));
+        assertEquals("https://host/v3/index.json", PublishedPackages.getFeed("https://host/v3/index.json"));
+    }
+
+    @Test
+    public void shouldFindPublishedVersionsOnAllPages() throws IOException {
+        PackageReference published = new PackageReference("foo", "1.0.0");
+        PackageReference lastPage = new PackageReference("Foo", "1.2");
+        PackageReference unpublished = new PackageReference("Foo", "2.0.0");
+        PublishedPackages packages = new PublishedPackages(NugetFeedClient.get(), root + "/feed/api/v2/package");
+
+        Set<PackageReference> found = packages.findPublished(Arrays.asList(published, lastPage, unpublished));
+
+        assertTrue(found.contains(published));
+        assertTrue(found.contains(lastPage));
+        assertFalse(found.contains(unpublished));
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    public void shouldRememberPushedPackages() throws IOException {
+        PublishedPackages packages = new PublishedPackages(NugetFeedClient.get(), root + "/feed/api/v2/package");
+        PackageReference pushed = new PackageReference("Bar", "3.0.0");
+        packages.published(pushed);
+
+        assertTrue(packages.findPublished(Arrays.asList(pushed)).contains(pushed));
+        assertEquals(0, queries.get());
+    }
+
+    private File writePackage(String name, String id, String version) throws IOException {
+        File packageFile = folder.newFile(name);
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(packageFile))) {
+            zip.putNextEntry(new ZipEntry("lib/net45/" + id + ".dll"));
+            zip.write(new byte[] {1, 2, 3});
+            zip.putNextEntry(new ZipEntry(id + ".nuspec"));
+            zip.write(("<?xml version=\"1.0\"?><package xmlns=\"http://schemas.microsoft.com/packaging/2013/05/nuspec.xsd\">"
+                    + "<metadata><id>" + id + "</id><version>" + version + "</version><authors>me</authors>"
+                    + "<dependencies><dependency id=\"Other\" version=\"9.0\"/></dependencies></metadata></package>").getBytes(StandardCharsets.UTF_8));
+        }
+        return packageFile;
+    }
+
+    private static String feed(String next, String... versions) {
+        StringBuilder body = new StringBuilder("<feed xmlns=\"http://www.w3.org/2005/Atom\""
+                + " xmlns:d=\"http://schemas.microsoft.com/ado/2007/08/dataservices\""
+                + " xmlns:m=\"http://schemas.microsoft.com/ado/2007/08/dataservices/metadata\">");
+        for (String version : versions) {
+            body.append("<entry><m:properties><d:Version>").append(version).append("</d:Version></m:properties></entry>");
+        }
+        if (next != null) {
+            body.append("<link rel=\"next\" href=\"").append(next.replace("&", "&amp;")).append("\"/>");
+        }
+        return body.append("</feed>").toString();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.jenkinsci.plugins.nuget.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class SharedPackageVersionCacheTest {
+
+    long now;
+    SharedPackageVersionCache cache;
+
+    @Before
+    public void setUp() {
+        now = 0;
+        cache = new SharedPackageVersionCache(5, TimeUnit.MINUTES, 2) {
+            @Override
+            long now() {
+                return now;
+            }
+        };
+    }
+
+    @Test
+    public void shouldShareVersionsIgnoringIdCase() {
+        cache.put(key("Newtonsoft.Json"), "12.0.3");
+
+        assertEquals("12.0.3", cache.get(key("newtonsoft.json")));
+        assertNull(cache.get(new PackageVersionKey(PackageVersionKey.DEFAULT_FEED, "Newtonsoft.Json", true)));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void shouldExpireEntries() {
+        cache.put(key("Serilog"), "2.10.0");
+        now += TimeUnit.MINUTES.toMillis(5);
+
+        assertNull(cache.get(key("Serilog")));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntries() {
+        cache.put(key("A"), "1.0.0");
+        cache.put(key("B"), "1.0.0");
+        cache.get(key("A"));
+        cache.put(key("C"), "1.0.0");
+
+        assertEquals("1.0.0", cache.get(key("A")));
+        assertNull(cache.get(key("B")));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void shouldNotCacheMissingVersions() {
+        cache.put(key("Missing"), null);
+
+        assertEquals(0, cache.size());
+    }
+
+    private static PackageVersionKey key(String id) {
+        return new PackageVersionKey(PackageVersionKey.DEFAULT_FEED, id, false);
+    }
+}